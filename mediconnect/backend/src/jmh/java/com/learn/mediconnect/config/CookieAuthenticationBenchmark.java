@@ -0,0 +1,71 @@
+package com.learn.mediconnect.config;
+
+import com.learn.mediconnect.service.SessionTokenService;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of CookieAuthenticationFilter: find the userSession cookie among the request's cookies,
+// verify the signed session token and set the authentication.
+// The session lookup is the token check itself (no repository is involved since sessions became signed tokens).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CookieAuthenticationBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForMediConnectThatIsAtLeast256BitsLong!";
+    private static final String PREVIOUS_SECRET = "previousBenchmarkSecretForMediConnectAtLeast256BitsLong!";
+
+    // current: signed with the active key; rotated: signed with a retired key; invalid: tampered signature
+    @Param({"current", "rotated", "invalid"})
+    public String token;
+
+    private CookieAuthenticationFilter filter;
+    private Cookie[] cookies;
+
+    @Setup
+    public void setUp() {
+        SessionTokenService tokens = new SessionTokenService(SECRET, 3_600_000, List.of(PREVIOUS_SECRET));
+        filter = new CookieAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "sessionTokenService", tokens);
+
+        String session = switch (token) {
+            case "current" -> tokens.issueToken("patient", "ayesha", 42L, 0);
+            case "rotated" -> new SessionTokenService(PREVIOUS_SECRET, 3_600_000, List.of()).issueToken("patient", "ayesha", 42L, 0);
+            default -> tokens.issueToken("patient", "ayesha", 42L, 0) + "x";
+        };
+        // A browser sends other cookies along with ours
+        cookies = new Cookie[] {
+                new Cookie("theme", "dark"),
+                new Cookie("locale", "en-BD"),
+                new Cookie("userSession", session)
+        };
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/appointments/patient/42");
+        request.setCookies(cookies);
+        try {
+            filter.doFilterInternal(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
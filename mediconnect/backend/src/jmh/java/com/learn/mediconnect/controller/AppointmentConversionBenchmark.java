@@ -0,0 +1,53 @@
+package com.learn.mediconnect.controller;
+
+import com.learn.mediconnect.dto.AppointmentDTO;
+import com.learn.mediconnect.entity.Appointment;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// AppointmentController's entity <-> DTO mapping, run for every appointment a request reads or writes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AppointmentConversionBenchmark {
+
+    private AppointmentController controller;
+    private Appointment appointment;
+    private AppointmentDTO dto;
+
+    @Setup
+    public void setUp() {
+        // The converters use neither service
+        controller = new AppointmentController(null, null, Duration.ofMinutes(30));
+
+        Doctor doctor = new Doctor(7L, "Dr. Rahman", "rahman@example.com", "rahman", "secret", "Cardiology");
+        Patient patient = new Patient(42L, "Ayesha Khan", "ayesha@example.com", "ayesha", "secret");
+        appointment = new Appointment(doctor, patient, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 4),
+                "Chest pain after exercise");
+        appointment.setId(1001L);
+        appointment.setVisitingSerialNumber(12);
+
+        dto = controller.convertToDTO(appointment);
+    }
+
+    @Benchmark
+    public AppointmentDTO convertToDTO() {
+        return controller.convertToDTO(appointment);
+    }
+
+    @Benchmark
+    public Appointment convertToEntity() {
+        return controller.convertToEntity(dto);
+    }
+}
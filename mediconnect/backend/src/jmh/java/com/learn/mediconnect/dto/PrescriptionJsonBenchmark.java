@@ -0,0 +1,60 @@
+package com.learn.mediconnect.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON write and read of a PrescriptionDTO with all four item lists filled, using an ObjectMapper
+// configured the way Spring MVC configures its own
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PrescriptionJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private PrescriptionDTO prescription;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        prescription = new PrescriptionDTO();
+        prescription.setId(5001L);
+        prescription.setPrescriptionDate(LocalDate.of(2026, 3, 4));
+        prescription.setPatientId(42L);
+        prescription.setPatientName("Ayesha Khan");
+        prescription.setDoctorId(7L);
+        prescription.setDoctorName("Dr. Rahman");
+        prescription.setProblem("Persistent dry cough and mild fever for five days");
+        prescription.setTests(List.of("Complete blood count", "Chest X-ray", "CRP", "Sputum culture"));
+        prescription.setTablets(List.of("Paracetamol 500mg 1+1+1", "Montelukast 10mg 0+0+1", "Fexofenadine 120mg 1+0+0"));
+        prescription.setCapsules(List.of("Omeprazole 20mg 1+0+1", "Doxycycline 100mg 1+0+1"));
+        prescription.setVaccines(List.of("Influenza (seasonal)"));
+        prescription.setAdvice("Plenty of fluids, steam inhalation twice daily, avoid cold drinks");
+        prescription.setFollowUpDate(LocalDate.of(2026, 3, 11));
+        prescription.setStatus("ACTIVE");
+
+        json = objectMapper.writeValueAsBytes(prescription);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(prescription);
+    }
+
+    @Benchmark
+    public PrescriptionDTO deserialize() throws Exception {
+        return objectMapper.readValue(json, PrescriptionDTO.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.repository.AppointmentSerialCounterRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// AppointmentSerialAllocator's control flow over an in-memory counter table standing in for
+// appointment_serial_counters, so the numbers are the allocator's own overhead without the database
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerialAllocationBenchmark {
+
+    private static final LocalDate VISITING_DATE = LocalDate.of(2026, 3, 4);
+
+    private AppointmentSerialAllocator allocator;
+    private Map<CounterKey, AtomicInteger> counters;
+    private final AtomicInteger nextDoctor = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        counters = new ConcurrentHashMap<>();
+        allocator = new AppointmentSerialAllocator(inMemoryRepository(counters));
+    }
+
+    // Steady state: the counter row for the doctor and day exists
+    @Benchmark
+    public Integer existingCounter() {
+        return allocator.allocate(1L, VISITING_DATE);
+    }
+
+    // First booking of a doctor's day: the increment misses and the counter is inserted
+    @Benchmark
+    public Integer newCounter() {
+        return allocator.allocate((long) nextDoctor.incrementAndGet(), VISITING_DATE);
+    }
+
+    // Many patients booking the same doctor and day at once
+    @Benchmark
+    @Threads(8)
+    public Integer contendedCounter() {
+        return allocator.allocate(1L, VISITING_DATE);
+    }
+
+    private static AppointmentSerialCounterRepository inMemoryRepository(Map<CounterKey, AtomicInteger> counters) {
+        return (AppointmentSerialCounterRepository) Proxy.newProxyInstance(
+                AppointmentSerialCounterRepository.class.getClassLoader(),
+                new Class<?>[] {AppointmentSerialCounterRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "incrementCounter": {
+                            AtomicInteger counter = counters.get(new CounterKey((Long) args[0], (LocalDate) args[1]));
+                            if (counter == null) {
+                                return 0;
+                            }
+                            counter.addAndGet((Integer) args[2]);
+                            return 1;
+                        }
+                        case "insertCounter":
+                            return counters.putIfAbsent(new CounterKey((Long) args[0], (LocalDate) args[1]),
+                                    new AtomicInteger((Integer) args[2])) == null ? 1 : 0;
+                        case "findLastSerial":
+                            return counters.get(new CounterKey((Long) args[0], (LocalDate) args[1])).get();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private record CounterKey(Long doctorId, LocalDate visitingDate) {}
+}
@@ -12,16 +12,22 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.learn.mediconnect.service.SessionValidationService;
+import com.learn.mediconnect.service.AuthService;
+import com.learn.mediconnect.service.SessionTokenService;
+import com.learn.mediconnect.service.SessionTokenService.Session;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 @Component
 public class CookieAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
-    private SessionValidationService sessionValidationService;
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private AuthService authService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -48,24 +54,20 @@ public class CookieAuthenticationFilter extends OncePerRequestFilter {
         }
 
         if (userSession != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Validate session and extract user info
-            String[] sessionParts = userSession.split("_", 2);
-            if (sessionParts.length == 2) {
-                String userType = sessionParts[0];
-                String username = sessionParts[1];
+            // Verify the signed session token, then that it has not been revoked since it was issued (the session
+            // version comes from a cache, so this rarely reaches the database). Reads are checked like writes, so a
+            // deleted, renamed or re-passworded user is locked out at once rather than when the token expires.
+            Optional<Session> session = sessionTokenService.parseToken(userSession)
+                    .filter(authService::isSessionCurrent);
+            if (session.isPresent()) {
+                // Create authentication token with role
+                SimpleGrantedAuthority authority = new SimpleGrantedAuthority(session.get().getRole());
                 
-                // Validate session
-                if (sessionValidationService.isValidSession(userType, username)) {
-                    // Create authentication token with role
-                    String role = "ROLE_" + userType.toUpperCase();
-                    SimpleGrantedAuthority authority = new SimpleGrantedAuthority(role);
-                    
-                    UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(username, null, 
-                                                              Collections.singletonList(authority));
-                    
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+                UsernamePasswordAuthenticationToken authentication = 
+                    new UsernamePasswordAuthenticationToken(session.get(), null, 
+                                                          Collections.singletonList(authority));
+                
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
 
@@ -0,0 +1,32 @@
+package com.learn.mediconnect.config;
+
+import com.github.benmanes.caffeine.jcache.CacheManagerImpl;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.Properties;
+
+// Cache manager behind the Hibernate second-level cache; regions are configured in hibernate-cache.conf.
+// Created here rather than looked up from the JVM-wide JCache provider, which hands out one shared manager per
+// URI: this way each application context (and so each test database) has its own regions, closed with it.
+@Configuration
+public class HibernateCacheConfig {
+
+    private static final URI CONFIG = URI.create("classpath:hibernate-cache.conf");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        return new CacheManagerImpl(Caching.getCachingProvider(CaffeineCachingProvider.class.getName()),
+                false, CONFIG, getClass().getClassLoader(), new Properties());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+    }
+}
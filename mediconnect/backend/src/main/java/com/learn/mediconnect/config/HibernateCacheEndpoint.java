@@ -0,0 +1,79 @@
+package com.learn.mediconnect.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET /actuator/hibernatecache: hit/miss/put counts per second-level cache region next to the region's
+// current size and configured capacity, for sizing the regions in hibernate-cache.conf
+@Component
+@Endpoint(id = "hibernatecache")
+public class HibernateCacheEndpoint {
+
+    private final SessionFactory sessionFactory;
+    private final CacheManager cacheManager;
+
+    public HibernateCacheEndpoint(EntityManagerFactory entityManagerFactory, CacheManager hibernateCacheManager) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.cacheManager = hibernateCacheManager;
+    }
+
+    @ReadOperation
+    public Map<String, Object> cacheStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : sorted(statistics.getSecondLevelCacheRegionNames())) {
+            regions.put(region, region(region, statistics.getCacheRegionStatistics(region)));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        body.put("hits", statistics.getSecondLevelCacheHitCount());
+        body.put("misses", statistics.getSecondLevelCacheMissCount());
+        body.put("puts", statistics.getSecondLevelCachePutCount());
+        body.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        body.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        body.put("regions", regions);
+        return body;
+    }
+
+    private Map<String, Object> region(String name, CacheRegionStatistics statistics) {
+        Map<String, Object> region = new LinkedHashMap<>();
+        if (statistics != null) {
+            long hits = statistics.getHitCount();
+            long lookups = hits + statistics.getMissCount();
+            region.put("hits", hits);
+            region.put("misses", statistics.getMissCount());
+            region.put("puts", statistics.getPutCount());
+            region.put("hitRatio", lookups == 0 ? null : (double) hits / lookups);
+        }
+
+        Cache<?, ?> cache = cacheManager.getCache(name);
+        if (cache != null) {
+            region.put("size", cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize());
+            @SuppressWarnings("unchecked")
+            CaffeineConfiguration<?, ?> configuration = cache.getConfiguration(CaffeineConfiguration.class);
+            configuration.getMaximumSize().ifPresent(maximum -> region.put("maximumSize", maximum));
+            configuration.getExpireAfterWrite().ifPresent(nanos -> region.put("expireAfterWrite", Duration.ofNanos(nanos).toString()));
+        }
+        return region;
+    }
+
+    private static String[] sorted(String[] names) {
+        String[] copy = names.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,26 @@
+package com.learn.mediconnect.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+// HQL function jsonb_contains(listColumn, value): true when a jsonb string list has an entry equal to value.
+// On PostgreSQL it renders as a @> containment test so the jsonb_path_ops GIN indexes (V6) are used.
+// Other dialects (the H2 test database) get a text match on the serialized list instead.
+// Registered through META-INF/services/org.hibernate.boot.model.FunctionContributor.
+public class JsonbFunctionContributor implements FunctionContributor {
+
+    public static final String JSONB_CONTAINS = "jsonb_contains";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        String pattern = functionContributions.getDialect() instanceof PostgreSQLDialect
+                ? "(?1 @> jsonb_build_array(cast(?2 as text)))"
+                : "(locate(concat('\"', ?2, '\"'), cast(?1 as varchar)) > 0)";
+        functionContributions.getFunctionRegistry().registerPattern(JSONB_CONTAINS, pattern, booleanType);
+    }
+}
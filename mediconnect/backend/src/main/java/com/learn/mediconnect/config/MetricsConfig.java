@@ -0,0 +1,56 @@
+package com.learn.mediconnect.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.HibernateMetrics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Hibernate meters next to the ones Spring Boot binds itself (http.server.requests, hikaricp.connections.*).
+// Needs hibernate.generate_statistics, which is off by default (HIBERNATE_STATISTICS=true turns it on).
+@Configuration
+public class MetricsConfig {
+
+    private static final String SESSION_FACTORY_NAME = "entityManagerFactory";
+
+    // Session, statement, query, entity and per-region second-level cache counters (hibernate.*)
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class),
+                SESSION_FACTORY_NAME, Tags.empty()).bindTo(registry);
+    }
+
+    // Hit ratio per second-level cache region and for the query cache, so dashboards need no division
+    @Bean
+    public MeterBinder hibernateCacheHitRatios(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics,
+                                stats -> hitRatio(stats.getCacheRegionStatistics(region)))
+                        .description("Share of second-level cache lookups in the region that were hits")
+                        .tags("entityManagerFactory", SESSION_FACTORY_NAME, "region", region)
+                        .register(registry);
+            }
+            Gauge.builder("hibernate.cache.query.hit.ratio", statistics,
+                            stats -> ratio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()))
+                    .description("Share of query cache lookups that were hits")
+                    .tag("entityManagerFactory", SESSION_FACTORY_NAME)
+                    .register(registry);
+        };
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        return region != null ? ratio(region.getHitCount(), region.getMissCount()) : Double.NaN;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long lookups = hits + misses;
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+}
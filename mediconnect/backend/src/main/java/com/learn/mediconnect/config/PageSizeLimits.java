@@ -0,0 +1,25 @@
+package com.learn.mediconnect.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Page sizes for the paged list endpoints; requests without a size get the default, which also caps un-paged callers
+@Component
+public class PageSizeLimits {
+
+    @Value("${pagination.default-size:500}")
+    private int defaultSize;
+
+    @Value("${pagination.max-size:1000}")
+    private int maxSize;
+
+    public int resolve(Integer requestedSize) {
+        if (requestedSize == null) {
+            return defaultSize;
+        }
+        if (requestedSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(requestedSize, maxSize);
+    }
+}
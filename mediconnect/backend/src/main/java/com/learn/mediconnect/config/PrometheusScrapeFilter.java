@@ -0,0 +1,66 @@
+package com.learn.mediconnect.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Collections;
+
+// Lets Prometheus scrape /actuator/prometheus with HTTP basic auth (basic_auth in the scrape config) instead of an
+// admin login cookie. The credential grants ROLE_METRICS, which SecurityConfig accepts on that endpoint only.
+// Without metrics.scrape.password the filter does nothing and the endpoint stays admin-only.
+@Component
+public class PrometheusScrapeFilter extends OncePerRequestFilter {
+
+    static final String SCRAPE_PATH = "/actuator/prometheus";
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    private final byte[] expectedCredentials;
+
+    public PrometheusScrapeFilter(@Value("${metrics.scrape.username}") String username,
+                                  @Value("${metrics.scrape.password}") String password) {
+        this.expectedCredentials = password.isEmpty()
+                ? null
+                : (username + ":" + password).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String authorization = request.getHeader("Authorization");
+        if (expectedCredentials != null
+                && SCRAPE_PATH.equals(request.getRequestURI())
+                && authorization != null && authorization.startsWith(BASIC_PREFIX)
+                && SecurityContextHolder.getContext().getAuthentication() == null
+                && matches(authorization.substring(BASIC_PREFIX.length()))) {
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    "prometheus", null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_METRICS")));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // Constant-time comparison so the response time does not reveal how much of the credential was right
+    private boolean matches(String encoded) {
+        byte[] presented;
+        try {
+            presented = Base64.getDecoder().decode(encoded.trim());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(presented, expectedCredentials);
+    }
+}
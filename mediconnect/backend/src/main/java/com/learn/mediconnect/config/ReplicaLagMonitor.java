@@ -0,0 +1,64 @@
+package com.learn.mediconnect.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Polls the replica for its replay lag. Until the first successful check, and whenever a check fails, the replica
+// counts as unavailable and ReplicaRoutingDataSource keeps read-only transactions on the primary.
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    // A hung replica must not stall the check; it simply counts as unavailable
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    private volatile boolean available;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replay lag of the read replica at the last check (NaN while it is unavailable)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval}")
+    public void check() {
+        try {
+            Double lag = replica.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag != null ? lag : 0;
+            if (!available) {
+                log.info("Read replica available (lag {} s)", lagSeconds);
+            }
+            available = true;
+        } catch (RuntimeException e) {
+            if (available) {
+                log.warn("Read replica unavailable, reading from the primary: {}", e.getMessage());
+            }
+            available = false;
+            lagSeconds = Double.NaN;
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public boolean isWithinMaxLag() {
+        return lagSeconds <= maxLag.toMillis() / 1000.0;
+    }
+}
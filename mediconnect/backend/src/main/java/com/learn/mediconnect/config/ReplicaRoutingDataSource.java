@@ -0,0 +1,168 @@
+package com.learn.mediconnect.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.WebUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Sends read-only transactions to the replica and everything else to the primary.
+// Must sit behind a LazyConnectionDataSourceProxy: the route is picked when the first statement needs a connection,
+// by which time the transaction's read-only flag is known. A read-only transaction still goes to the primary when
+// the replica is behind or unreachable (ReplicaLagMonitor), when the current user wrote something within the
+// read-your-writes window, or when it runs inside onPrimary(...).
+// The window starts when a write commits (rolled back writes start nothing). It is tracked twice: per username on
+// this instance, which also covers work outside an HTTP request, and as a short-lived cookie on the response, which
+// the client sends to whichever instance serves its next request, so it holds behind a load balancer as well.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    static final String RECENT_WRITE_COOKIE = "recentWrite";
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Duration readYourWritesWindow;
+    // Usernames with a write committed on this instance in the last read-your-writes window
+    private final Cache<String, Boolean> recentWriters;
+    private final Map<String, Counter> decisions;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    Duration readYourWritesWindow, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(100_000)
+                .build();
+        this.decisions = Map.of(
+                "write", decision(meterRegistry, Route.PRIMARY, "write"),
+                "pinned", decision(meterRegistry, Route.PRIMARY, "pinned"),
+                "read-your-writes", decision(meterRegistry, Route.PRIMARY, "read-your-writes"),
+                "replica-unavailable", decision(meterRegistry, Route.PRIMARY, "replica-unavailable"),
+                "replica-lag", decision(meterRegistry, Route.PRIMARY, "replica-lag"),
+                "read-only", decision(meterRegistry, Route.REPLICA, "read-only"));
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    // For reads that must see the latest commit, e.g. loads triggered by a write that just committed
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PINNED_TO_PRIMARY.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit(username);
+            return route("write");
+        }
+        if (PINNED_TO_PRIMARY.get() != null) {
+            return route("pinned");
+        }
+        if (wroteRecently(username)) {
+            return route("read-your-writes");
+        }
+        if (!lagMonitor.isAvailable()) {
+            return route("replica-unavailable");
+        }
+        if (!lagMonitor.isWithinMaxLag()) {
+            return route("replica-lag");
+        }
+        return route("read-only");
+    }
+
+    private void recordWriteOnCommit(String username) {
+        HttpServletResponse response = currentResponse();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Auto-commit: visible as soon as the statement runs
+            recordWrite(username, response);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(username, response);
+            }
+        });
+    }
+
+    private void recordWrite(String username, HttpServletResponse response) {
+        if (username != null) {
+            recentWriters.put(username, Boolean.TRUE);
+        }
+        // Once the body has started the header can no longer be added; the per-instance entry still applies
+        if (response != null && !response.isCommitted() && response.getHeaders(HttpHeaders.SET_COOKIE).stream()
+                .noneMatch(header -> header.startsWith(RECENT_WRITE_COOKIE + "="))) {
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(RECENT_WRITE_COOKIE, "1")
+                    .httpOnly(true)
+                    .path("/")
+                    .maxAge(Math.max(1, readYourWritesWindow.toSeconds()))
+                    .build()
+                    .toString());
+        }
+    }
+
+    private boolean wroteRecently(String username) {
+        if (username != null && recentWriters.getIfPresent(username) != null) {
+            return true;
+        }
+        HttpServletRequest request = currentRequest();
+        return request != null && WebUtils.getCookie(request, RECENT_WRITE_COOKIE) != null;
+    }
+
+    private Route route(String reason) {
+        decisions.get(reason).increment();
+        return reason.equals("read-only") ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    // Set on request threads only; executor and scheduled work has neither
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest() : null;
+    }
+
+    private static HttpServletResponse currentResponse() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getResponse() : null;
+    }
+
+    private static Counter decision(MeterRegistry meterRegistry, Route route, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Connections handed out per target database and the reason it was chosen")
+                .tag("route", route.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,68 @@
+package com.learn.mediconnect.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Records the number of SQL statements each request issued (http.server.requests.sql, tagged like
+// http.server.requests) and logs requests slower than request-metrics.slow-request-threshold with that count
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowRequestNanos;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                @Value("${request-metrics.slow-request-threshold}") Duration slowRequestThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestNanos = slowRequestThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestSqlStatementCounter.beginRequest();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            int statements = RequestSqlStatementCounter.endRequest();
+            String uri = uriPattern(request);
+            DistributionSummary.builder("http.server.requests.sql")
+                    .description("SQL statements issued per request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+            if (elapsed >= slowRequestNanos) {
+                log.warn("Slow request {} {} took {} ms with {} SQL statements (status {})", request.getMethod(), uri,
+                        elapsed / 1_000_000, statements, response.getStatus());
+            }
+        }
+    }
+
+    // The mapped pattern (/api/appointments/{id}) rather than the raw path, to keep the tag bounded
+    private static String uriPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
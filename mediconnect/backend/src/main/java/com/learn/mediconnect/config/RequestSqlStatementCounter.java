@@ -0,0 +1,30 @@
+package com.learn.mediconnect.config;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Counts the JDBC statements Hibernate prepares while a request is being handled on the current thread.
+// These are the events behind Statistics.getPrepareStatementCount(), but scoped to one request instead of the
+// whole SessionFactory. Registered for every session through hibernate.session.events.auto; sessions opened
+// outside a request (scheduled jobs, the outbox relay) are not counted.
+public class RequestSqlStatementCounter extends BaseSessionEventListener {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    static void beginRequest() {
+        CURRENT.set(new int[1]);
+    }
+
+    static int endRequest() {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+}
@@ -4,10 +4,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
@@ -18,6 +20,9 @@ public class SecurityConfig {
     @Autowired
     private CookieAuthenticationFilter cookieAuthenticationFilter;
 
+    @Autowired
+    private PrometheusScrapeFilter prometheusScrapeFilter;
+
     @Autowired
     private CorsConfigurationSource corsConfigurationSource;
 
@@ -27,7 +32,11 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // No or revoked session: 401, so clients can tell it apart from a role that is not allowed (403)
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
             .addFilterBefore(cookieAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(prometheusScrapeFilter, UsernamePasswordAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
                 // Allow CORS preflight requests
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
@@ -35,6 +44,18 @@ public class SecurityConfig {
                 // Public endpoints - anyone can access
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/patients/register").permitAll() // Patient registration
+                .requestMatchers("/actuator/health").permitAll()
+                
+                // Operational metrics - admin only, plus the scrape credential on the Prometheus endpoint
+                .requestMatchers(PrometheusScrapeFilter.SCRAPE_PATH).hasAnyRole("ADMIN", "METRICS")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                
+                // Bulk audit export - admin only
+                .requestMatchers(HttpMethod.GET, "/api/prescriptions/export").hasRole("ADMIN")
+                
+                // Medication and text search span all patients - staff only
+                .requestMatchers(HttpMethod.GET, "/api/prescriptions/search", "/api/prescriptions/search/**")
+                        .hasAnyRole("ADMIN", "DOCTOR")
                 
                 // GET methods - everyone authenticated can access
                 .requestMatchers(HttpMethod.GET, "/api/**").authenticated()
@@ -51,6 +72,7 @@ public class SecurityConfig {
                 
                 .requestMatchers(HttpMethod.DELETE, "/api/appointments/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/prescriptions/**").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/appointments/batch", "/api/prescriptions/batch").hasRole("ADMIN")
                 
                 // Doctor specific permissions
                 .requestMatchers(HttpMethod.POST, "/api/prescriptions/**").hasAnyRole("ADMIN", "DOCTOR")
@@ -0,0 +1,41 @@
+package com.learn.mediconnect.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+// HQL functions over the prescriptions.search_vector tsvector column (V7), passed in as the first argument:
+//   prescription_text_matches(column(pr.search_vector), query) - the prescription matches a web-style query
+//                                                                 ("chest pain", -fever, "or")
+//   prescription_text_rank(column(pr.search_vector), query)    - relevance of the match, higher is better
+// The column is not mapped on Prescription, so it is never loaded with the entity; column() qualifies it with
+// the query's own alias. On PostgreSQL the match is a @@ test served by the GIN index. The H2 test database keeps
+// a lower-cased copy of the text in that column instead, so there it is a substring match ranked by occurrence
+// count. Callers reject a blank query first: it matches nothing on PostgreSQL and everything on H2.
+// Registered through META-INF/services/org.hibernate.boot.model.FunctionContributor.
+public class TextSearchFunctionContributor implements FunctionContributor {
+
+    public static final String TEXT_MATCHES = "prescription_text_matches";
+    public static final String TEXT_RANK = "prescription_text_rank";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE);
+
+        boolean postgres = functionContributions.getDialect() instanceof PostgreSQLDialect;
+        String matches = postgres
+                ? "(?1 @@ websearch_to_tsquery('english', ?2))"
+                : "(?1 like concat('%', lower(?2), '%'))";
+        String rank = postgres
+                ? "ts_rank(?1, websearch_to_tsquery('english', ?2))"
+                : "cast((length(?1) - length(replace(?1, lower(?2), ''))) / length(?2) as double precision)";
+
+        functionContributions.getFunctionRegistry().registerPattern(TEXT_MATCHES, matches, booleanType);
+        functionContributions.getFunctionRegistry().registerPattern(TEXT_RANK, rank, doubleType);
+    }
+}
@@ -1,42 +1,49 @@
 package com.learn.mediconnect.controller;
 
+import com.learn.mediconnect.dto.CursorPage;
 import com.learn.mediconnect.dto.AppointmentDTO;
+import com.learn.mediconnect.dto.AppointmentSummary;
+import com.learn.mediconnect.dto.QueueUpdate;
 import com.learn.mediconnect.entity.Appointment;
 import com.learn.mediconnect.entity.Appointment.AppointmentStatus;
 import com.learn.mediconnect.entity.Doctor;
 import com.learn.mediconnect.entity.Patient;
 import com.learn.mediconnect.service.AppointmentService;
-import com.learn.mediconnect.service.DoctorService;
-import com.learn.mediconnect.service.PatientService;
+import com.learn.mediconnect.service.DoctorQueueService;
 import com.learn.mediconnect.validation.CreateValidation;
 import com.learn.mediconnect.validation.UpdateValidation;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/appointments")
-@CrossOrigin(originPatterns = "*", allowCredentials = "true")
+@CrossOrigin(originPatterns = "*", allowCredentials = "true", exposedHeaders = CursorPage.NEXT_CURSOR_HEADER)
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
-    private final DoctorService doctorService;
-    private final PatientService patientService;
+    private final DoctorQueueService doctorQueueService;
+    private final Duration queueStreamTimeout;
 
     @Autowired
-    public AppointmentController(AppointmentService appointmentService, 
-                               DoctorService doctorService, 
-                               PatientService patientService) {
+    public AppointmentController(AppointmentService appointmentService,
+                               DoctorQueueService doctorQueueService,
+                               @Value("${appointments.queue-stream-timeout}") Duration queueStreamTimeout) {
         this.appointmentService = appointmentService;
-        this.doctorService = doctorService;
-        this.patientService = patientService;
+        this.doctorQueueService = doctorQueueService;
+        this.queueStreamTimeout = queueStreamTimeout;
     }
 
     @PostMapping
@@ -47,6 +54,20 @@ public class AppointmentController {
         return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
     }
 
+    // Bulk create in a single transaction; the service loads all referenced doctors and patients in two queries.
+    // Every element is checked against the same create rules as a single create before anything is saved.
+    @PostMapping("/batch")
+    @Validated(CreateValidation.class)
+    public ResponseEntity<List<AppointmentDTO>> createAppointments(@RequestBody List<@Valid AppointmentDTO> appointmentDTOs) {
+        List<Appointment> appointments = appointmentDTOs.stream()
+                .map(this::convertToEntity)
+                .toList();
+        List<AppointmentDTO> responseDTOs = appointmentService.createAppointments(appointments).stream()
+                .map(this::convertToDTO)
+                .toList();
+        return new ResponseEntity<>(responseDTOs, HttpStatus.CREATED);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AppointmentDTO> getAppointmentById(@PathVariable Long id) {
         Appointment appointment = appointmentService.getAppointmentById(id);
@@ -54,13 +75,23 @@ public class AppointmentController {
         return ResponseEntity.ok(appointmentDTO);
     }
 
+    // Keyset paged; the cursor for the following page is returned in the X-Next-Cursor header
     @GetMapping
-    public ResponseEntity<List<AppointmentDTO>> getAllAppointments() {
-        List<Appointment> appointments = appointmentService.getAllAppointments();
-        List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(appointmentDTOs);
+    public ResponseEntity<List<AppointmentSummary>> getAllAppointments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AppointmentSummary> page = appointmentService.getAllAppointments(cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.next() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.next());
+        }
+        return response.body(page.items());
+    }
+
+    // Appointments per status over the whole table; list pages are capped, so counting rows client-side undercounts
+    @GetMapping("/counts")
+    public ResponseEntity<Map<String, Long>> countAppointmentsByStatus() {
+        return ResponseEntity.ok(appointmentService.countAppointmentsByStatus());
     }
 
     @PutMapping("/{id}")
@@ -92,67 +123,79 @@ public class AppointmentController {
     }
 
     @GetMapping("/doctor/{doctorId}")
-    public ResponseEntity<List<AppointmentDTO>> getAppointmentsByDoctor(@PathVariable Long doctorId) {
-        List<Appointment> appointments = appointmentService.getAppointmentsByDoctorId(doctorId);
-        List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(appointmentDTOs);
+    public ResponseEntity<List<AppointmentSummary>> getAppointmentsByDoctor(@PathVariable Long doctorId) {
+        List<AppointmentSummary> appointments = appointmentService.getAppointmentsByDoctorId(doctorId);
+        return ResponseEntity.ok(appointments);
     }
 
     @GetMapping("/patient/{patientId}")
-    public ResponseEntity<List<AppointmentDTO>> getAppointmentsByPatient(@PathVariable Long patientId) {
-        List<Appointment> appointments = appointmentService.getAppointmentsByPatientId(patientId);
-        List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(appointmentDTOs);
+    public ResponseEntity<List<AppointmentSummary>> getAppointmentsByPatient(@PathVariable Long patientId) {
+        List<AppointmentSummary> appointments = appointmentService.getAppointmentsByPatientId(patientId);
+        return ResponseEntity.ok(appointments);
     }
 
     @GetMapping("/doctor/{doctorId}/upcoming")
-    public ResponseEntity<List<AppointmentDTO>> getUpcomingAppointmentsByDoctor(@PathVariable Long doctorId) {
-        List<Appointment> appointments = appointmentService.getUpcomingAppointmentsByDoctor(doctorId);
-        List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(appointmentDTOs);
+    public ResponseEntity<List<AppointmentSummary>> getUpcomingAppointmentsByDoctor(@PathVariable Long doctorId) {
+        List<AppointmentSummary> appointments = appointmentService.getUpcomingAppointmentsByDoctor(doctorId);
+        return ResponseEntity.ok(appointments);
     }
 
     @GetMapping("/patient/{patientId}/upcoming")
-    public ResponseEntity<List<AppointmentDTO>> getUpcomingAppointmentsByPatient(@PathVariable Long patientId) {
-        List<Appointment> appointments = appointmentService.getUpcomingAppointmentsByPatient(patientId);
-        List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(appointmentDTOs);
+    public ResponseEntity<List<AppointmentSummary>> getUpcomingAppointmentsByPatient(@PathVariable Long patientId) {
+        List<AppointmentSummary> appointments = appointmentService.getUpcomingAppointmentsByPatient(patientId);
+        return ResponseEntity.ok(appointments);
     }
 
     @GetMapping("/doctor/{doctorId}/date/{date}")
-    public ResponseEntity<List<AppointmentDTO>> getAppointmentsByDoctorAndDate(
+    public ResponseEntity<List<AppointmentSummary>> getAppointmentsByDoctorAndDate(
             @PathVariable Long doctorId, 
             @PathVariable String date) {
         LocalDate visitingDate = LocalDate.parse(date);
-        List<Appointment> appointments = appointmentService.getAppointmentsByDoctorAndDateOrderedBySerial(doctorId, visitingDate);
-        List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(appointmentDTOs);
+        List<AppointmentSummary> appointments = appointmentService.getAppointmentsByDoctorAndDateOrderedBySerial(doctorId, visitingDate);
+        return ResponseEntity.ok(appointments);
+    }
+
+    // Server-sent "queue" events for a doctor's day: the current state first, then only changes.
+    // Pass appointmentId to also follow that appointment's position in the line.
+    @GetMapping(value = "/doctor/{doctorId}/date/{date}/queue", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDoctorQueue(
+            @PathVariable Long doctorId,
+            @PathVariable String date,
+            @RequestParam(required = false) Long appointmentId) {
+        LocalDate visitingDate = LocalDate.parse(date);
+        SseEmitter emitter = new SseEmitter(queueStreamTimeout.toMillis());
+        DoctorQueueService.Subscription subscription = doctorQueueService.subscribe(
+                doctorId, visitingDate, appointmentId, update -> sendQueueUpdate(emitter, update));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
     }
 
-    // Helper methods for entity-DTO conversion
-    private Appointment convertToEntity(AppointmentDTO dto) {
+    private void sendQueueUpdate(SseEmitter emitter, QueueUpdate update) {
+        try {
+            emitter.send(SseEmitter.event().name("queue").data(update));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; completing the emitter cancels the subscription
+            emitter.completeWithError(e);
+        }
+    }
+
+    // Helper methods for entity-DTO conversion (package-private for AppointmentConversionBenchmark)
+    // Doctor and patient are id-only references; the service loads and validates them
+    Appointment convertToEntity(AppointmentDTO dto) {
         Appointment appointment = new Appointment();
         appointment.setId(dto.getId());
         
         // Set doctor
         if (dto.getDoctorId() != null) {
-            Doctor doctor = doctorService.getDoctorById(dto.getDoctorId());
+            Doctor doctor = doctorReference(dto.getDoctorId());
             appointment.setDoctor(doctor);
         }
         
         // Set patient
         if (dto.getPatientId() != null) {
-            Patient patient = patientService.getPatientById(dto.getPatientId());
+            Patient patient = patientReference(dto.getPatientId());
             appointment.setPatient(patient);
         }
         
@@ -169,7 +212,19 @@ public class AppointmentController {
         return appointment;
     }
 
-    private AppointmentDTO convertToDTO(Appointment appointment) {
+    private Doctor doctorReference(Long id) {
+        Doctor doctor = new Doctor();
+        doctor.setId(id);
+        return doctor;
+    }
+
+    private Patient patientReference(Long id) {
+        Patient patient = new Patient();
+        patient.setId(id);
+        return patient;
+    }
+
+    AppointmentDTO convertToDTO(Appointment appointment) {
         AppointmentDTO dto = new AppointmentDTO();
         dto.setId(appointment.getId());
         dto.setDoctorId(appointment.getDoctor().getId());
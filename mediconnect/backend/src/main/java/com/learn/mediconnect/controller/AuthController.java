@@ -4,6 +4,8 @@ import com.learn.mediconnect.dto.LoginRequest;
 import com.learn.mediconnect.dto.LoginResponse;
 import com.learn.mediconnect.dto.PatientDTO;
 import com.learn.mediconnect.service.AuthService;
+import com.learn.mediconnect.service.SessionTokenService;
+import com.learn.mediconnect.service.SessionTokenService.Session;
 import com.learn.mediconnect.entity.Doctor;
 import com.learn.mediconnect.entity.Patient;
 import jakarta.servlet.http.Cookie;
@@ -26,6 +28,9 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
     @PostMapping("/admin")
     public ResponseEntity<LoginResponse> adminLogin(
             @Valid @RequestBody LoginRequest loginRequest,
@@ -40,12 +45,7 @@ public class AuthController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
             }
 
-            Cookie sessionCookie = new Cookie("userSession", "admin_" + username);
-            sessionCookie.setHttpOnly(true);
-            sessionCookie.setSecure(false); 
-            sessionCookie.setPath("/");
-            sessionCookie.setMaxAge(3600); 
-            response.addCookie(sessionCookie);
+            response.addCookie(createSessionCookie(sessionTokenService.issueToken("admin", username, null, 0)));
 
             LoginResponse successResponse = LoginResponse.success("ADMIN", username);
             return ResponseEntity.ok(successResponse);
@@ -72,12 +72,8 @@ public class AuthController {
 
             Doctor doctor = authService.getDoctorByUsername(username);
             
-            Cookie sessionCookie = new Cookie("userSession", "doctor_" + username);
-            sessionCookie.setHttpOnly(true);
-            sessionCookie.setSecure(false); 
-            sessionCookie.setPath("/");
-            sessionCookie.setMaxAge(3600); 
-            response.addCookie(sessionCookie);
+            response.addCookie(createSessionCookie(sessionTokenService.issueToken("doctor", username, doctor.getId(),
+                    doctor.getSessionVersion())));
 
             LoginResponse successResponse = LoginResponse.success("DOCTOR", username);
             return ResponseEntity.ok(successResponse);
@@ -104,12 +100,8 @@ public class AuthController {
 
             Patient patient = authService.getPatientByUsername(username);
             
-            Cookie sessionCookie = new Cookie("userSession", "patient_" + username);
-            sessionCookie.setHttpOnly(true);
-            sessionCookie.setSecure(false); 
-            sessionCookie.setPath("/");
-            sessionCookie.setMaxAge(3600); 
-            response.addCookie(sessionCookie);
+            response.addCookie(createSessionCookie(sessionTokenService.issueToken("patient", username, patient.getId(),
+                    patient.getSessionVersion())));
 
             LoginResponse successResponse = LoginResponse.success("PATIENT", username, patient.getId());
             return ResponseEntity.ok(successResponse);
@@ -170,18 +162,10 @@ public class AuthController {
                 // Extract userType from "ROLE_ADMIN" -> "ADMIN"
                 String userType = fullRole.startsWith("ROLE_") ? fullRole.substring(5) : fullRole;
                 
-                // Get user ID based on user type
+                // User ID is carried by the session token
                 Long userId = null;
-                if ("PATIENT".equals(userType)) {
-                    Patient patient = authService.getPatientByUsername(username);
-                    if (patient != null) {
-                        userId = patient.getId();
-                    }
-                } else if ("DOCTOR".equals(userType)) {
-                    Doctor doctor = authService.getDoctorByUsername(username);
-                    if (doctor != null) {
-                        userId = doctor.getId();
-                    }
+                if (authentication.getPrincipal() instanceof Session session) {
+                    userId = session.userId();
                 }
                 
                 return ResponseEntity.ok(new LoginResponse(true, "Session valid", userType, username, userId));
@@ -193,4 +177,12 @@ public class AuthController {
         }
     }
 
+    private Cookie createSessionCookie(String token) {
+        Cookie sessionCookie = new Cookie("userSession", token);
+        sessionCookie.setHttpOnly(true);
+        sessionCookie.setSecure(false); 
+        sessionCookie.setPath("/");
+        sessionCookie.setMaxAge(sessionTokenService.getExpirationSeconds()); 
+        return sessionCookie;
+    }
 }
\ No newline at end of file
@@ -1,17 +1,22 @@
 package com.learn.mediconnect.controller;
 
 import com.learn.mediconnect.dto.DoctorDTO;
+import com.learn.mediconnect.dto.DoctorDashboard;
+import com.learn.mediconnect.dto.DoctorSummary;
 import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.service.DoctorDashboardService;
 import com.learn.mediconnect.service.DoctorService;
 import com.learn.mediconnect.validation.CreateValidation;
 import com.learn.mediconnect.validation.UpdateValidation;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,10 +26,12 @@ import java.util.stream.Collectors;
 public class DoctorController {
 
     private final DoctorService doctorService;
+    private final DoctorDashboardService doctorDashboardService;
 
     @Autowired
-    public DoctorController(DoctorService doctorService) {
+    public DoctorController(DoctorService doctorService, DoctorDashboardService doctorDashboardService) {
         this.doctorService = doctorService;
+        this.doctorDashboardService = doctorDashboardService;
     }
 
     @PostMapping
@@ -42,6 +49,15 @@ public class DoctorController {
         return ResponseEntity.ok(doctorDTO);
     }
 
+    // Appointment and prescription counts per status and per day for the dashboard (defaults to the coming week)
+    @GetMapping("/{id}/dashboard")
+    public ResponseEntity<DoctorDashboard> getDoctorDashboard(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(doctorDashboardService.getDashboard(id, from, to));
+    }
+
     @GetMapping
     public ResponseEntity<List<DoctorDTO>> getAllDoctors() {
         List<Doctor> doctors = doctorService.getAllDoctors();
@@ -66,21 +82,13 @@ public class DoctorController {
     }
 
     @GetMapping("/specialization/{specialization}")
-    public ResponseEntity<List<DoctorDTO>> getDoctorsBySpecialization(@PathVariable String specialization) {
-        List<Doctor> doctors = doctorService.getDoctorsBySpecialization(specialization);
-        List<DoctorDTO> doctorDTOs = doctors.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(doctorDTOs);
+    public ResponseEntity<List<DoctorSummary>> getDoctorsBySpecialization(@PathVariable String specialization) {
+        return ResponseEntity.ok(doctorService.getDoctorsBySpecialization(specialization));
     }
 
     @GetMapping("/visiting-day/{day}")
-    public ResponseEntity<List<DoctorDTO>> getDoctorsByVisitingDay(@PathVariable String day) {
-        List<Doctor> doctors = doctorService.getDoctorsByVisitingDay(day);
-        List<DoctorDTO> doctorDTOs = doctors.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(doctorDTOs);
+    public ResponseEntity<List<DoctorSummary>> getDoctorsByVisitingDay(@PathVariable String day) {
+        return ResponseEntity.ok(doctorService.getDoctorsByVisitingDay(day));
     }
 
     @GetMapping("/check-email")
@@ -1,8 +1,11 @@
 package com.learn.mediconnect.controller;
 
+import com.learn.mediconnect.dto.CursorPage;
 import com.learn.mediconnect.dto.PatientDTO;
+import com.learn.mediconnect.dto.TimelineEntry;
 import com.learn.mediconnect.entity.Patient;
 import com.learn.mediconnect.service.PatientService;
+import com.learn.mediconnect.service.PatientTimelineService;
 import com.learn.mediconnect.validation.CreateValidation;
 import com.learn.mediconnect.validation.UpdateValidation;
 import jakarta.validation.Valid;
@@ -17,14 +20,16 @@ import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/patients")
-@CrossOrigin(originPatterns = "*", allowCredentials = "true")
+@CrossOrigin(originPatterns = "*", allowCredentials = "true", exposedHeaders = CursorPage.NEXT_CURSOR_HEADER)
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientTimelineService patientTimelineService;
 
     @Autowired
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService, PatientTimelineService patientTimelineService) {
         this.patientService = patientService;
+        this.patientTimelineService = patientTimelineService;
     }
 
     @PostMapping
@@ -42,6 +47,21 @@ public class PatientController {
         return ResponseEntity.ok(patientDTO);
     }
 
+    // Appointments and prescriptions interleaved newest first; keyset paged like the list endpoints,
+    // with the cursor for the following page in the X-Next-Cursor header
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<List<TimelineEntry>> getPatientTimeline(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<TimelineEntry> page = patientTimelineService.getTimeline(id, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.next() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.next());
+        }
+        return response.body(page.items());
+    }
+
     @GetMapping
     public ResponseEntity<List<PatientDTO>> getAllPatients() {
         List<Patient> patients = patientService.getAllPatients();
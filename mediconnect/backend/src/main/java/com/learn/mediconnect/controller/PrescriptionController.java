@@ -1,41 +1,48 @@
 package com.learn.mediconnect.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.mediconnect.dto.CursorPage;
 import com.learn.mediconnect.dto.PrescriptionDTO;
+import com.learn.mediconnect.dto.PrescriptionSummary;
 import com.learn.mediconnect.entity.Prescription;
 import com.learn.mediconnect.entity.Prescription.PrescriptionStatus;
 import com.learn.mediconnect.entity.Doctor;
 import com.learn.mediconnect.entity.Patient;
 import com.learn.mediconnect.service.PrescriptionService;
-import com.learn.mediconnect.service.DoctorService;
-import com.learn.mediconnect.service.PatientService;
 import com.learn.mediconnect.validation.CreateValidation;
 import com.learn.mediconnect.validation.UpdateValidation;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/prescriptions")
-@CrossOrigin(originPatterns = "*", allowCredentials = "true")
+@CrossOrigin(originPatterns = "*", allowCredentials = "true", exposedHeaders = CursorPage.NEXT_CURSOR_HEADER)
 public class PrescriptionController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final PrescriptionService prescriptionService;
-    private final DoctorService doctorService;
-    private final PatientService patientService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public PrescriptionController(PrescriptionService prescriptionService, 
-                                DoctorService doctorService, 
-                                PatientService patientService) {
+    public PrescriptionController(PrescriptionService prescriptionService,
+                                ObjectMapper objectMapper) {
         this.prescriptionService = prescriptionService;
-        this.doctorService = doctorService;
-        this.patientService = patientService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -46,6 +53,20 @@ public class PrescriptionController {
         return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
     }
 
+    // Bulk create in a single transaction; the service loads all referenced doctors and patients in two queries.
+    // Every element is checked against the same create rules as a single create before anything is saved.
+    @PostMapping("/batch")
+    @Validated(CreateValidation.class)
+    public ResponseEntity<List<PrescriptionDTO>> createPrescriptions(@RequestBody List<@Valid PrescriptionDTO> prescriptionDTOs) {
+        List<Prescription> prescriptions = prescriptionDTOs.stream()
+                .map(this::convertToEntity)
+                .toList();
+        List<PrescriptionDTO> responseDTOs = prescriptionService.createPrescriptions(prescriptions).stream()
+                .map(this::convertToDTO)
+                .toList();
+        return new ResponseEntity<>(responseDTOs, HttpStatus.CREATED);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PrescriptionDTO> getPrescriptionById(@PathVariable Long id) {
         Prescription prescription = prescriptionService.getPrescriptionById(id);
@@ -53,13 +74,69 @@ public class PrescriptionController {
         return ResponseEntity.ok(prescriptionDTO);
     }
 
+    // Keyset paged; the cursor for the following page is returned in the X-Next-Cursor header
     @GetMapping
-    public ResponseEntity<List<PrescriptionDTO>> getAllPrescriptions() {
-        List<Prescription> prescriptions = prescriptionService.getAllPrescriptions();
-        List<PrescriptionDTO> prescriptionDTOs = prescriptions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(prescriptionDTOs);
+    public ResponseEntity<List<PrescriptionSummary>> getAllPrescriptions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<PrescriptionSummary> page = prescriptionService.getAllPrescriptions(cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.next() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.next());
+        }
+        return response.body(page.items());
+    }
+
+    // Prescriptions containing a medicine or test (exact name), optionally narrowed by list, doctor and date range.
+    // Keyset paged like the full list.
+    @GetMapping("/search")
+    public ResponseEntity<List<PrescriptionSummary>> searchPrescriptions(
+            @RequestParam String item,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<PrescriptionSummary> page = prescriptionService.searchByItem(item, type, doctorId, from, to, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.next() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.next());
+        }
+        return response.body(page.items());
+    }
+
+    // Ranked full-text search over problem, advice and other notes for one doctor and/or patient
+    @GetMapping("/search/text")
+    public ResponseEntity<List<PrescriptionSummary>> searchPrescriptionText(
+            @RequestParam("q") @NotBlank String query,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(prescriptionService.searchByText(query, doctorId, patientId, size));
+    }
+
+    // Audit export as newline-delimited JSON, written row by row while the database cursor advances
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void exportPrescriptions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"prescriptions.ndjson\"");
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            // Every record ends with its own newline, so an empty export is an empty body
+            generator.setRootValueSeparator(null);
+            prescriptionService.exportPrescriptions(from, to, prescription -> {
+                try {
+                    objectMapper.writeValue(generator, prescription);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
     }
 
     @PutMapping("/{id}")
@@ -77,35 +154,27 @@ public class PrescriptionController {
     }
 
     @GetMapping("/patient/{patientId}")
-    public ResponseEntity<List<PrescriptionDTO>> getPrescriptionsByPatient(@PathVariable Long patientId) {
-        List<Prescription> prescriptions = prescriptionService.getPrescriptionsByPatientId(patientId);
-        List<PrescriptionDTO> prescriptionDTOs = prescriptions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(prescriptionDTOs);
+    public ResponseEntity<List<PrescriptionSummary>> getPrescriptionsByPatient(@PathVariable Long patientId) {
+        List<PrescriptionSummary> prescriptions = prescriptionService.getPrescriptionsByPatientId(patientId);
+        return ResponseEntity.ok(prescriptions);
     }
 
     @GetMapping("/doctor/{doctorId}")
-    public ResponseEntity<List<PrescriptionDTO>> getPrescriptionsByDoctor(@PathVariable Long doctorId) {
-        List<Prescription> prescriptions = prescriptionService.getPrescriptionsByDoctorId(doctorId);
-        List<PrescriptionDTO> prescriptionDTOs = prescriptions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(prescriptionDTOs);
+    public ResponseEntity<List<PrescriptionSummary>> getPrescriptionsByDoctor(@PathVariable Long doctorId) {
+        List<PrescriptionSummary> prescriptions = prescriptionService.getPrescriptionsByDoctorId(doctorId);
+        return ResponseEntity.ok(prescriptions);
     }
 
     @GetMapping("/patient/{patientId}/doctor/{doctorId}")
-    public ResponseEntity<List<PrescriptionDTO>> getPrescriptionsByPatientAndDoctor(
+    public ResponseEntity<List<PrescriptionSummary>> getPrescriptionsByPatientAndDoctor(
             @PathVariable Long patientId, 
             @PathVariable Long doctorId) {
-        List<Prescription> prescriptions = prescriptionService.getPrescriptionsByPatientAndDoctor(patientId, doctorId);
-        List<PrescriptionDTO> prescriptionDTOs = prescriptions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(prescriptionDTOs);
+        List<PrescriptionSummary> prescriptions = prescriptionService.getPrescriptionsByPatientAndDoctor(patientId, doctorId);
+        return ResponseEntity.ok(prescriptions);
     }
 
     // Helper methods for entity-DTO conversion
+    // Doctor and patient are id-only references; the service loads and validates them
     private Prescription convertToEntity(PrescriptionDTO dto) {
         Prescription prescription = new Prescription();
         prescription.setId(dto.getId());
@@ -113,13 +182,13 @@ public class PrescriptionController {
         
         // Set patient
         if (dto.getPatientId() != null) {
-            Patient patient = patientService.getPatientById(dto.getPatientId());
+            Patient patient = patientReference(dto.getPatientId());
             prescription.setPatient(patient);
         }
         
         // Set doctor
         if (dto.getDoctorId() != null) {
-            Doctor doctor = doctorService.getDoctorById(dto.getDoctorId());
+            Doctor doctor = doctorReference(dto.getDoctorId());
             prescription.setDoctor(doctor);
         }
         
@@ -140,6 +209,18 @@ public class PrescriptionController {
         return prescription;
     }
 
+    private Doctor doctorReference(Long id) {
+        Doctor doctor = new Doctor();
+        doctor.setId(id);
+        return doctor;
+    }
+
+    private Patient patientReference(Long id) {
+        Patient patient = new Patient();
+        patient.setId(id);
+        return patient;
+    }
+
     private PrescriptionDTO convertToDTO(Prescription prescription) {
         PrescriptionDTO dto = new PrescriptionDTO();
         dto.setId(prescription.getId());
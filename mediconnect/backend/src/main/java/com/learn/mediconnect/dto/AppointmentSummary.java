@@ -0,0 +1,27 @@
+package com.learn.mediconnect.dto;
+
+import com.learn.mediconnect.entity.Appointment.AppointmentStatus;
+
+import java.time.LocalDate;
+
+// Read-only appointment row selected straight from the database (same JSON shape as AppointmentDTO)
+public record AppointmentSummary(
+        Long id,
+        Long doctorId,
+        String doctorName,
+        Long patientId,
+        String patientName,
+        LocalDate bookingDate,
+        LocalDate visitingDate,
+        Integer visitingSerialNumber,
+        String status,
+        String problemDescription) {
+
+    // Used by the JPQL constructor expressions in AppointmentRepository
+    public AppointmentSummary(Long id, Long doctorId, String doctorName, Long patientId, String patientName,
+                              LocalDate bookingDate, LocalDate visitingDate, Integer visitingSerialNumber,
+                              AppointmentStatus status, String problemDescription) {
+        this(id, doctorId, doctorName, patientId, patientName, bookingDate, visitingDate, visitingSerialNumber,
+             status.name(), problemDescription);
+    }
+}
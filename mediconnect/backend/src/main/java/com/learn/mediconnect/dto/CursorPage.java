@@ -0,0 +1,73 @@
+package com.learn.mediconnect.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// One keyset page of a list endpoint; "next" is an opaque cursor, null on the last page
+public record CursorPage<T>(List<T> items, String next) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String PREFIX = "id:";
+    private static final String KEY_PREFIX = "key:";
+
+    // Rows must have been fetched with size + 1 so we can tell whether another page exists
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> idOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, encode(idOf.apply(items.get(size - 1))));
+    }
+
+    // For pages ordered on more than the id: the cursor carries the last row's sort key as text
+    public static <T> CursorPage<T> ofKey(List<T> rows, int size, Function<T, String> keyOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, encode(KEY_PREFIX, keyOf.apply(items.get(size - 1))));
+    }
+
+    // Id after which the next page starts (0 for the first page)
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (value.startsWith(PREFIX)) {
+                return Long.parseLong(value.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to the error below
+        }
+        throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+    }
+
+    // Sort key after which the next page starts (null for the first page); the caller parses the key itself
+    public static String decodeKeyCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (value.startsWith(KEY_PREFIX)) {
+                return value.substring(KEY_PREFIX.length());
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to the error below
+        }
+        throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+    }
+
+    private static String encode(Long id) {
+        return encode(PREFIX, String.valueOf(id));
+    }
+
+    private static String encode(String prefix, String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((prefix + value).getBytes(StandardCharsets.UTF_8));
+    }
+}
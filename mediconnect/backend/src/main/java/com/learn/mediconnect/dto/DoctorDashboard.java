@@ -0,0 +1,23 @@
+package com.learn.mediconnect.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Appointment and prescription counts for one doctor over [from, to], in total and per day.
+// Every status and every day of the window is present, with zero where there is nothing to count.
+// Appointments are counted by visiting date, prescriptions by prescription date.
+public record DoctorDashboard(
+        Long doctorId,
+        LocalDate from,
+        LocalDate to,
+        Map<String, Long> appointmentsByStatus,
+        Map<String, Long> prescriptionsByStatus,
+        List<Day> days) {
+
+    public record Day(
+            LocalDate date,
+            Map<String, Long> appointmentsByStatus,
+            Map<String, Long> prescriptionsByStatus) {
+    }
+}
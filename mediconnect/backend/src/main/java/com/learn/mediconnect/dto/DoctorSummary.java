@@ -0,0 +1,13 @@
+package com.learn.mediconnect.dto;
+
+// Read-only doctor row kept in DoctorDirectory (same JSON shape as DoctorDTO, which never carries the password out)
+public record DoctorSummary(
+        Long id,
+        String name,
+        String email,
+        String phone,
+        String username,
+        String specializations,
+        String visitingDays,
+        String pic) {
+}
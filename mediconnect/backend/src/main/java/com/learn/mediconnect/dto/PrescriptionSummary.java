@@ -0,0 +1,34 @@
+package com.learn.mediconnect.dto;
+
+import com.learn.mediconnect.entity.Prescription.PrescriptionStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Read-only prescription row selected straight from the database (same JSON shape as PrescriptionDTO)
+public record PrescriptionSummary(
+        Long id,
+        LocalDate prescriptionDate,
+        Long patientId,
+        String patientName,
+        Long doctorId,
+        String doctorName,
+        String problem,
+        List<String> tests,
+        List<String> tablets,
+        List<String> capsules,
+        List<String> vaccines,
+        String advice,
+        String other,
+        LocalDate followUpDate,
+        String status) {
+
+    // Used by the JPQL constructor expressions in PrescriptionRepository
+    public PrescriptionSummary(Long id, LocalDate prescriptionDate, Long patientId, String patientName,
+                               Long doctorId, String doctorName, String problem, List<String> tests,
+                               List<String> tablets, List<String> capsules, List<String> vaccines,
+                               String advice, String other, LocalDate followUpDate, PrescriptionStatus status) {
+        this(id, prescriptionDate, patientId, patientName, doctorId, doctorName, problem, tests, tablets,
+             capsules, vaccines, advice, other, followUpDate, status.name());
+    }
+}
@@ -0,0 +1,17 @@
+package com.learn.mediconnect.dto;
+
+import java.time.LocalDate;
+
+// State of one doctor's queue for a day as seen by one subscriber; pushed only when it changes.
+// appointmentId, serial, position and status are null unless the subscriber follows an appointment,
+// and position is null once that appointment is no longer waiting.
+public record QueueUpdate(
+        Long doctorId,
+        LocalDate visitingDate,
+        Integer currentSerial,
+        int waiting,
+        Long appointmentId,
+        Integer serial,
+        Integer position,
+        String status) {
+}
@@ -0,0 +1,22 @@
+package com.learn.mediconnect.dto;
+
+import java.time.LocalDate;
+
+// One row of a patient's medical timeline: an appointment (dated by its visiting date) or a prescription.
+// description is the appointment's problem description or the prescription's problem; visitingSerialNumber is
+// only set for appointments and followUpDate only for prescriptions. The full record is at
+// /api/appointments/{id} or /api/prescriptions/{id}.
+public record TimelineEntry(
+        String type,
+        Long id,
+        LocalDate date,
+        Long doctorId,
+        String doctorName,
+        String status,
+        String description,
+        Integer visitingSerialNumber,
+        LocalDate followUpDate) {
+
+    public static final String APPOINTMENT = "APPOINTMENT";
+    public static final String PRESCRIPTION = "PRESCRIPTION";
+}
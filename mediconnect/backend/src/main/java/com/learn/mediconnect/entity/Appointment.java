@@ -6,11 +6,17 @@ import java.time.LocalDate;
 
 
 @Entity
-@Table(name = "appointments")
+// Indexes mirror V9__appointment_prescription_query_indexes.sql so ddl-auto schemas get them too
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_doctor_date_serial", columnList = "doctor_id, visiting_date, visiting_serial_number"),
+        @Index(name = "idx_appointments_patient_date", columnList = "patient_id, visiting_date"),
+        @Index(name = "idx_appointments_doctor_status", columnList = "doctor_id, status")
+})
 public class Appointment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_id_seq")
+    @SequenceGenerator(name = "appointments_id_seq", sequenceName = "appointments_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
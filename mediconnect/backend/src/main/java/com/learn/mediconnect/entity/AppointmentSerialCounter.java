@@ -0,0 +1,84 @@
+package com.learn.mediconnect.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+
+// Last serial number handed out for a doctor on a visiting date
+@Entity
+@Table(name = "appointment_serial_counters")
+public class AppointmentSerialCounter {
+
+    @EmbeddedId
+    private CounterId id;
+
+    @Column(name = "last_serial", nullable = false)
+    private Integer lastSerial;
+
+    // Composite key (doctor_id, visiting_date)
+    @Embeddable
+    public static class CounterId implements Serializable {
+
+        @Column(name = "doctor_id", nullable = false)
+        private Long doctorId;
+
+        @Column(name = "visiting_date", nullable = false)
+        private LocalDate visitingDate;
+
+        public CounterId() {}
+
+        public CounterId(Long doctorId, LocalDate visitingDate) {
+            this.doctorId = doctorId;
+            this.visitingDate = visitingDate;
+        }
+
+        public Long getDoctorId() {
+            return doctorId;
+        }
+
+        public LocalDate getVisitingDate() {
+            return visitingDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CounterId)) return false;
+            CounterId that = (CounterId) o;
+            return Objects.equals(doctorId, that.doctorId) && Objects.equals(visitingDate, that.visitingDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(doctorId, visitingDate);
+        }
+    }
+
+    // Constructors
+    public AppointmentSerialCounter() {}
+
+    public AppointmentSerialCounter(Long doctorId, LocalDate visitingDate, Integer lastSerial) {
+        this.id = new CounterId(doctorId, visitingDate);
+        this.lastSerial = lastSerial;
+    }
+
+    // Getters and Setters
+    public CounterId getId() {
+        return id;
+    }
+
+    public void setId(CounterId id) {
+        this.id = id;
+    }
+
+    public Integer getLastSerial() {
+        return lastSerial;
+    }
+
+    public void setLastSerial(Integer lastSerial) {
+        this.lastSerial = lastSerial;
+    }
+}
@@ -1,15 +1,24 @@
 package com.learn.mediconnect.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.DayOfWeek;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctors")
 @Table(name = "doctors")
 public class Doctor {
 
     @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctors_id_seq")
+    @SequenceGenerator(name = "doctors_id_seq", sequenceName = "doctors_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -37,7 +46,26 @@ public class Doctor {
     @Column(name = "pic")
     private String pic;
 
-
+    // Carried in the session token; bumped on username or password changes so older tokens stop passing
+    // the revocation check (see AuthService.isSessionCurrent)
+    @Column(name = "session_version", nullable = false)
+    private int sessionVersion;
+
+    // Normalized copies of the specializations / visitingDays text, kept in sync by DoctorService
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "doctor_specializations",
+            joinColumns = @JoinColumn(name = "doctor_id"),
+            inverseJoinColumns = @JoinColumn(name = "specialization_id"),
+            indexes = @Index(name = "idx_doctor_specializations_specialization", columnList = "specialization_id, doctor_id"))
+    private Set<Specialization> specializationLinks = new HashSet<>();
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "doctor_visiting_days",
+            joinColumns = @JoinColumn(name = "doctor_id"),
+            indexes = @Index(name = "idx_doctor_visiting_days_day", columnList = "day_of_week, doctor_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", nullable = false, length = 16)
+    private Set<DayOfWeek> visitingDayLinks = new HashSet<>();
 
     // Relationships
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -133,6 +161,22 @@ public class Doctor {
 
 
 
+    public Set<Specialization> getSpecializationLinks() {
+        return specializationLinks;
+    }
+
+    public void setSpecializationLinks(Set<Specialization> specializationLinks) {
+        this.specializationLinks = specializationLinks;
+    }
+
+    public Set<DayOfWeek> getVisitingDayLinks() {
+        return visitingDayLinks;
+    }
+
+    public void setVisitingDayLinks(Set<DayOfWeek> visitingDayLinks) {
+        this.visitingDayLinks = visitingDayLinks;
+    }
+
     public List<Appointment> getAppointments() {
         return appointments;
     }
@@ -149,6 +193,14 @@ public class Doctor {
         this.prescriptions = prescriptions;
     }
 
+    public int getSessionVersion() {
+        return sessionVersion;
+    }
+
+    public void setSessionVersion(int sessionVersion) {
+        this.sessionVersion = sessionVersion;
+    }
+
     /**
      * Returns a string representation of the Doctor object for debugging and logging purposes.
      * Excludes sensitive fields like password for security reasons.
@@ -0,0 +1,135 @@
+package com.learn.mediconnect.entity;
+
+import jakarta.persistence.*;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.Map;
+
+
+// A state change of an appointment or prescription waiting to be handed to the outbox sinks
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_id_seq")
+    @SequenceGenerator(name = "outbox_events_id_seq", sequenceName = "outbox_events_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private AggregateType aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private EventType eventType;
+
+    // Written once; left out of updates so a retry never re-serializes (or dirty-checks into) the payload
+    @Column(name = "payload", columnDefinition = "jsonb", nullable = false, updatable = false)
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, Object> payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Failed delivery attempts; the relay gives up on an event after outbox.max-attempts
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    // Set while a relay is delivering the event; other relays skip it until then
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
+    public enum AggregateType {
+        APPOINTMENT,
+        PRESCRIPTION
+    }
+
+    public enum EventType {
+        CREATED,
+        UPDATED,
+        CANCELED,
+        COMPLETED,
+        DELETED
+    }
+
+    // Constructors
+    public OutboxEvent() {}
+
+    public OutboxEvent(AggregateType aggregateType, Long aggregateId, EventType eventType, Map<String, Object> payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public AggregateType getAggregateType() {
+        return aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public Map<String, Object> getPayload() {
+        return payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Instant getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    // Utility methods
+    public void claim(Instant until) {
+        this.claimedUntil = until;
+    }
+
+    // Also releases the claim, so the next relay pass retries the event
+    public void recordFailure(String error) {
+        this.attempts++;
+        this.lastError = error;
+        this.claimedUntil = null;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + id +
+                ", aggregateType=" + aggregateType +
+                ", aggregateId=" + aggregateId +
+                ", eventType=" + eventType +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
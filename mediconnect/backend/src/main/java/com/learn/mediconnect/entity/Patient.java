@@ -10,6 +10,8 @@ import java.util.List;
 public class Patient {
 
     @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patients_id_seq")
+    @SequenceGenerator(name = "patients_id_seq", sequenceName = "patients_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -40,6 +42,11 @@ public class Patient {
     @Column(name = "address", columnDefinition = "TEXT")
     private String address;
 
+    // Carried in the session token; bumped on username or password changes so older tokens stop passing
+    // the revocation check (see AuthService.isSessionCurrent)
+    @Column(name = "session_version", nullable = false)
+    private int sessionVersion;
+
     // Relationships
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Appointment> appointments;
@@ -155,6 +162,14 @@ public class Patient {
         this.prescriptions = prescriptions;
     }
 
+    public int getSessionVersion() {
+        return sessionVersion;
+    }
+
+    public void setSessionVersion(int sessionVersion) {
+        this.sessionVersion = sessionVersion;
+    }
+
     @Override
     public String toString() {
         return "Patient{" +
@@ -11,11 +11,17 @@ import java.util.Map;
 
 
 @Entity
-@Table(name = "prescriptions")
+// Indexes mirror the V9 and V10 migrations so ddl-auto schemas get them too
+@Table(name = "prescriptions", indexes = {
+        @Index(name = "idx_prescriptions_patient_doctor", columnList = "patient_id, doctor_id"),
+        @Index(name = "idx_prescriptions_doctor_date", columnList = "doctor_id, prescription_date"),
+        @Index(name = "idx_prescriptions_patient_date", columnList = "patient_id, prescription_date")
+})
 public class Prescription {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "prescriptions_id_seq")
+    @SequenceGenerator(name = "prescriptions_id_seq", sequenceName = "prescriptions_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "prescription_date", nullable = false)
@@ -1,11 +1,15 @@
 package com.learn.mediconnect.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "specializations")
 @Table(name = "specializations")
 public class Specialization {
 
@@ -4,9 +4,12 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.method.ParameterErrors;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -35,6 +38,34 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    // Handle constraint violations on request parameters (e.g. @NotBlank on a @RequestParam) and on the
+    // elements of a list request body (batch creates), reported per element as "[index].field"
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleMethodValidationErrors(HandlerMethodValidationException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getParameterValidationResults().forEach(result -> {
+            if (result instanceof ParameterErrors elementErrors) {
+                elementErrors.getFieldErrors().forEach(error -> errors.put(
+                    "[" + elementErrors.getContainerIndex() + "]." + error.getField(), error.getDefaultMessage()));
+                return;
+            }
+            RequestParam requestParam = result.getMethodParameter().getParameterAnnotation(RequestParam.class);
+            String parameterName = requestParam != null && !requestParam.name().isEmpty()
+                ? requestParam.name()
+                : result.getMethodParameter().getParameterName();
+            result.getResolvableErrors().forEach(error -> errors.put(parameterName, error.getDefaultMessage()));
+        });
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            "VALIDATION_ERROR",
+            "Validation failed for one or more parameters",
+            LocalDateTime.now(),
+            errors
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     // Handle resource not found errors (IllegalArgumentException from services)
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
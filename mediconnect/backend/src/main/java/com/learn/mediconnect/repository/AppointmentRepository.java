@@ -1,7 +1,10 @@
 package com.learn.mediconnect.repository;
 
+import com.learn.mediconnect.dto.AppointmentSummary;
 import com.learn.mediconnect.entity.Appointment;
 import com.learn.mediconnect.entity.Appointment.AppointmentStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,28 +18,80 @@ import java.util.Optional;
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
-    List<Appointment> findByDoctorId(Long doctorId);
+    // Entity finders (used by the write paths) fetch doctor and patient in the same query
 
-    List<Appointment> findByPatientId(Long patientId);
+    @Override
+    @EntityGraph(attributePaths = {"doctor", "patient"})
+    Optional<Appointment> findById(Long id);
 
-    List<Appointment> findByDoctorIdAndStatus(Long doctorId, AppointmentStatus status);
+    // Filtering on the foreign key column (not the fetched doctor/patient row) lets the composite indexes serve these
+    @EntityGraph(attributePaths = {"doctor", "patient"})
+    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId AND a.status = :status")
+    List<Appointment> findByDoctorIdAndStatus(@Param("doctorId") Long doctorId, @Param("status") AppointmentStatus status);
 
-    List<Appointment> findByPatientIdAndStatus(Long patientId, AppointmentStatus status);
+    @EntityGraph(attributePaths = {"doctor", "patient"})
+    @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND a.status = :status")
+    List<Appointment> findByPatientIdAndStatus(@Param("patientId") Long patientId, @Param("status") AppointmentStatus status);
 
-    // Find appointments for a specific doctor on a specific date
-    List<Appointment> findByDoctorIdAndVisitingDate(Long doctorId, LocalDate visitingDate);
+    // Read-only list queries select straight into AppointmentSummary (no entity hydration or dirty checking)
+    String SELECT_SUMMARY = "SELECT new com.learn.mediconnect.dto.AppointmentSummary(" +
+            "a.id, d.id, d.name, p.id, p.name, a.bookingDate, a.visitingDate, a.visitingSerialNumber, " +
+            "a.status, a.problemDescription) FROM Appointment a JOIN a.doctor d JOIN a.patient p ";
+
+    // Keyset page ordered by id; the limit is page size + 1 to detect a following page
+    @Query(SELECT_SUMMARY + "WHERE a.id > :afterId ORDER BY a.id ASC")
+    List<AppointmentSummary> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE d.id = :doctorId")
+    List<AppointmentSummary> findSummariesByDoctorId(@Param("doctorId") Long doctorId);
+
+    @Query(SELECT_SUMMARY + "WHERE p.id = :patientId")
+    List<AppointmentSummary> findSummariesByPatientId(@Param("patientId") Long patientId);
+
+    // Find appointments for a specific doctor on a specific date, ordered by serial number
+    @Query(SELECT_SUMMARY + "WHERE d.id = :doctorId AND a.visitingDate = :visitingDate ORDER BY a.visitingSerialNumber ASC")
+    List<AppointmentSummary> findByDoctorIdAndVisitingDate(@Param("doctorId") Long doctorId,
+                                                          @Param("visitingDate") LocalDate visitingDate);
 
     // Find upcoming appointments for a doctor
-    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId AND a.visitingDate >= :currentDate ORDER BY a.visitingDate ASC")
-    List<Appointment> findUpcomingAppointmentsByDoctor(@Param("doctorId") Long doctorId, 
-                                                      @Param("currentDate") LocalDate currentDate);
+    @Query(SELECT_SUMMARY + "WHERE d.id = :doctorId AND a.visitingDate >= :currentDate ORDER BY a.visitingDate ASC")
+    List<AppointmentSummary> findUpcomingAppointmentsByDoctor(@Param("doctorId") Long doctorId, 
+                                                             @Param("currentDate") LocalDate currentDate);
 
     // Find upcoming appointments for a patient
-    @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND a.visitingDate >= :currentDate ORDER BY a.visitingDate ASC")
-    List<Appointment> findUpcomingAppointmentsByPatient(@Param("patientId") Long patientId, 
-                                                       @Param("currentDate") LocalDate currentDate);
+    @Query(SELECT_SUMMARY + "WHERE p.id = :patientId AND a.visitingDate >= :currentDate ORDER BY a.visitingDate ASC")
+    List<AppointmentSummary> findUpcomingAppointmentsByPatient(@Param("patientId") Long patientId, 
+                                                              @Param("currentDate") LocalDate currentDate);
+
+    // Admin home: how many appointments there are in each status, counted by the database rather than from a list page
+    @Query("SELECT a.status AS status, COUNT(a) AS total FROM Appointment a GROUP BY a.status")
+    List<StatusCount> countByStatus();
+
+    interface StatusCount {
+        AppointmentStatus getStatus();
+
+        Long getTotal();
+    }
+
+    // Doctor dashboard: appointment counts per (status, visiting date) and prescription counts per
+    // (status, prescription date) in one round trip; both halves are range scans on the doctor/date indexes
+    @Query(value = "SELECT 'APPOINTMENT' AS kind, CAST(a.status AS VARCHAR(20)) AS status, a.visiting_date AS countDate, COUNT(*) AS total " +
+                   "FROM appointments a WHERE a.doctor_id = :doctorId AND a.visiting_date BETWEEN :from AND :to " +
+                   "GROUP BY a.status, a.visiting_date " +
+                   "UNION ALL " +
+                   "SELECT 'PRESCRIPTION', CAST(pr.status AS VARCHAR(20)), pr.prescription_date, COUNT(*) " +
+                   "FROM prescriptions pr WHERE pr.doctor_id = :doctorId AND pr.prescription_date BETWEEN :from AND :to " +
+                   "GROUP BY pr.status, pr.prescription_date", nativeQuery = true)
+    List<DashboardCount> countForDashboard(@Param("doctorId") Long doctorId,
+                                           @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    interface DashboardCount {
+        String getKind();
+
+        String getStatus();
+
+        LocalDate getCountDate();
 
-   
-    // Find appointments by doctor and date ordered by serial number
-    List<Appointment> findByDoctorIdAndVisitingDateOrderByVisitingSerialNumberAsc(Long doctorId, LocalDate visitingDate);
+        Long getTotal();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.learn.mediconnect.repository;
+
+import com.learn.mediconnect.entity.AppointmentSerialCounter;
+import com.learn.mediconnect.entity.AppointmentSerialCounter.CounterId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+
+@Repository
+public interface AppointmentSerialCounterRepository extends JpaRepository<AppointmentSerialCounter, CounterId> {
+
+    // The native writes declare the tables they touch; without that Hibernate would treat them as touching
+    // every table and clear the whole second-level cache (cached doctors, specializations) on each booking
+
+    // Advance the counter in place; the row lock is held until the booking transaction ends
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointment_serial_counters")
+    })
+    @Modifying
+    @Query(value = "UPDATE appointment_serial_counters SET last_serial = last_serial + :count " +
+                   "WHERE doctor_id = :doctorId AND visiting_date = :visitingDate", nativeQuery = true)
+    int incrementCounter(@Param("doctorId") Long doctorId, @Param("visitingDate") LocalDate visitingDate,
+                         @Param("count") int count);
+
+    // Create the counter for a new doctor/date, continuing after any serials booked before the counter existed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointment_serial_counters"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointments")
+    })
+    @Modifying
+    @Query(value = "INSERT INTO appointment_serial_counters (doctor_id, visiting_date, last_serial) " +
+                   "SELECT :doctorId, :visitingDate, COALESCE(MAX(a.visiting_serial_number), 0) + :count " +
+                   "FROM appointments a WHERE a.doctor_id = :doctorId AND a.visiting_date = :visitingDate " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertCounter(@Param("doctorId") Long doctorId, @Param("visitingDate") LocalDate visitingDate,
+                      @Param("count") int count);
+
+    @Query(value = "SELECT last_serial FROM appointment_serial_counters " +
+                   "WHERE doctor_id = :doctorId AND visiting_date = :visitingDate", nativeQuery = true)
+    Integer findLastSerial(@Param("doctorId") Long doctorId, @Param("visitingDate") LocalDate visitingDate);
+
+    // Step the counter back only if the given serial is still the last one handed out
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointment_serial_counters")
+    })
+    @Modifying
+    @Query(value = "UPDATE appointment_serial_counters SET last_serial = last_serial - 1 " +
+                   "WHERE doctor_id = :doctorId AND visiting_date = :visitingDate AND last_serial = :serial", nativeQuery = true)
+    int releaseLastSerial(@Param("doctorId") Long doctorId, @Param("visitingDate") LocalDate visitingDate,
+                          @Param("serial") Integer serial);
+}
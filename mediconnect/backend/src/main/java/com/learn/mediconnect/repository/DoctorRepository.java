@@ -1,6 +1,8 @@
 package com.learn.mediconnect.repository;
 
 import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,12 +22,29 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Doctor findByEmail(String email);
     
     Doctor findByUsername(String username);
+
+    // Scalar read so the revocation check never goes through the second-level cache
+    @Query("SELECT x.sessionVersion FROM Doctor x WHERE x.id = :id")
+    Optional<Integer> findSessionVersionById(@Param("id") Long id);
     
-    // Find doctors by specialization
-    @Query("SELECT d FROM Doctor d WHERE LOWER(d.specializations) = LOWER(:specialization)")
-    List<Doctor> findBySpecialization(@Param("specialization") String specialization);
+    // All doctors with their normalized specializations and visiting days, for rebuilding DoctorDirectory
+    @EntityGraph(attributePaths = {"specializationLinks", "visitingDayLinks"})
+    @Query("SELECT d FROM Doctor d ORDER BY d.id")
+    List<Doctor> findAllWithDirectoryLinks();
+
+    // One doctor with the same links, for applying a single write to DoctorDirectory
+    @EntityGraph(attributePaths = {"specializationLinks", "visitingDayLinks"})
+    @Query("SELECT d FROM Doctor d WHERE d.id = :id")
+    Optional<Doctor> findWithDirectoryLinksById(@Param("id") Long id);
+
+    boolean existsBySpecializationLinksId(Long specializationId);
+
+    List<Doctor> findBySpecializationLinksId(Long specializationId);
+
+    // Doctor and patient of a booking or prescription in one round trip; empty if either id is unknown
+    @Query("SELECT new com.learn.mediconnect.repository.DoctorRepository$DoctorAndPatient(d, p) " +
+           "FROM Doctor d, Patient p WHERE d.id = :doctorId AND p.id = :patientId")
+    Optional<DoctorAndPatient> findWithPatient(@Param("doctorId") Long doctorId, @Param("patientId") Long patientId);
 
-    // Find doctors by visiting days
-    @Query("SELECT d FROM Doctor d WHERE LOWER(d.visitingDays) = LOWER(:day)")
-    List<Doctor> findByVisitingDays(@Param("day") String day);
+    record DoctorAndPatient(Doctor doctor, Patient patient) {}
 }
\ No newline at end of file
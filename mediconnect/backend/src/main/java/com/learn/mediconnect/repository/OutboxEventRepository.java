@@ -0,0 +1,35 @@
+package com.learn.mediconnect.repository;
+
+import com.learn.mediconnect.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest deliverable events that no relay has a live claim on, locked (SELECT ... FOR UPDATE SKIP LOCKED) only
+    // for the short transaction that claims them. Rows another relay is claiming right now are skipped, not waited for.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // -2 is Hibernate's lock timeout for SKIP LOCKED
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.attempts < :maxAttempts " +
+           "AND (e.claimedUntil IS NULL OR e.claimedUntil < :now) ORDER BY e.id ASC")
+    List<OutboxEvent> lockNextBatch(@Param("maxAttempts") int maxAttempts, @Param("now") Instant now, Limit limit);
+
+    // Events the relay gave up on (outbox.max-attempts reached) that were recorded before the cutoff
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.attempts >= :maxAttempts AND e.createdAt < :cutoff")
+    int deleteParkedBefore(@Param("maxAttempts") int maxAttempts, @Param("cutoff") Instant cutoff);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,4 +22,54 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     
     Patient findByUsername(String username);
 
+    // Scalar read so the revocation check never goes through the second-level cache
+    @Query("SELECT x.sessionVersion FROM Patient x WHERE x.id = :id")
+    Optional<Integer> findSessionVersionById(@Param("id") Long id);
+
+    // Medical timeline: appointments and prescriptions newest first, keyset paged on (date, type, id) descending.
+    // Each half reads at most :limit rows backwards along its (patient_id, date) index before the merge, and only
+    // those rows are joined to doctors, so a page costs the same however long the history is.
+    // The first page passes a key above every row (see PatientTimelineService).
+    @Query(value = "SELECT t.entry_type AS entryType, t.id AS id, t.entry_date AS entryDate, t.doctor_id AS doctorId, " +
+                   "d.name AS doctorName, t.status AS status, t.description AS description, " +
+                   "t.visiting_serial_number AS visitingSerialNumber, t.follow_up_date AS followUpDate " +
+                   "FROM ((SELECT 'APPOINTMENT' AS entry_type, a.id, a.visiting_date AS entry_date, a.doctor_id, " +
+                   "CAST(a.status AS VARCHAR(20)) AS status, a.problem_description AS description, " +
+                   "a.visiting_serial_number, CAST(NULL AS DATE) AS follow_up_date " +
+                   "FROM appointments a WHERE a.patient_id = :patientId AND a.visiting_date <= :beforeDate " +
+                   "AND (a.visiting_date < :beforeDate OR 'APPOINTMENT' < :beforeType " +
+                   "OR ('APPOINTMENT' = :beforeType AND a.id < :beforeId)) " +
+                   "ORDER BY a.visiting_date DESC, a.id DESC LIMIT :limit) " +
+                   "UNION ALL " +
+                   "(SELECT 'PRESCRIPTION', pr.id, pr.prescription_date, pr.doctor_id, " +
+                   "CAST(pr.status AS VARCHAR(20)), pr.problem, CAST(NULL AS INTEGER), pr.follow_up_date " +
+                   "FROM prescriptions pr WHERE pr.patient_id = :patientId AND pr.prescription_date <= :beforeDate " +
+                   "AND (pr.prescription_date < :beforeDate OR 'PRESCRIPTION' < :beforeType " +
+                   "OR ('PRESCRIPTION' = :beforeType AND pr.id < :beforeId)) " +
+                   "ORDER BY pr.prescription_date DESC, pr.id DESC LIMIT :limit)) t " +
+                   "JOIN doctors d ON d.id = t.doctor_id " +
+                   "ORDER BY t.entry_date DESC, t.entry_type DESC, t.id DESC LIMIT :limit", nativeQuery = true)
+    List<TimelineRow> findTimelinePage(@Param("patientId") Long patientId, @Param("beforeDate") LocalDate beforeDate,
+                                       @Param("beforeType") String beforeType, @Param("beforeId") Long beforeId,
+                                       @Param("limit") int limit);
+
+    interface TimelineRow {
+        String getEntryType();
+
+        Long getId();
+
+        LocalDate getEntryDate();
+
+        Long getDoctorId();
+
+        String getDoctorName();
+
+        String getStatus();
+
+        String getDescription();
+
+        Integer getVisitingSerialNumber();
+
+        LocalDate getFollowUpDate();
+    }
 }
\ No newline at end of file
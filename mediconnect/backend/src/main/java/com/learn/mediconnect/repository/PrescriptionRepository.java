@@ -1,33 +1,116 @@
 package com.learn.mediconnect.repository;
 
+import com.learn.mediconnect.dto.PrescriptionSummary;
 import com.learn.mediconnect.entity.Prescription;
 import com.learn.mediconnect.entity.Prescription.PrescriptionStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PrescriptionRepository extends JpaRepository<Prescription, Long> {
 
-    List<Prescription> findByPatientId(Long patientId);
+    // Entity finders (used by the write paths) fetch doctor and patient in the same query.
+    // The inverse one-to-one appointment cannot be proxied, so it is joined too instead of selected per row.
 
-    List<Prescription> findByDoctorId(Long doctorId);
+    @Override
+    @EntityGraph(attributePaths = {"doctor", "patient", "appointment"})
+    Optional<Prescription> findById(Long id);
 
-    List<Prescription> findByPatientIdAndStatus(Long patientId, PrescriptionStatus status);
+    // Filtering on the foreign key column (not the fetched doctor/patient row) lets the composite indexes serve these
+    @EntityGraph(attributePaths = {"doctor", "patient", "appointment"})
+    @Query("SELECT pr FROM Prescription pr WHERE pr.patient.id = :patientId AND pr.status = :status")
+    List<Prescription> findByPatientIdAndStatus(@Param("patientId") Long patientId, @Param("status") PrescriptionStatus status);
 
-    List<Prescription> findByDoctorIdAndStatus(Long doctorId, PrescriptionStatus status);
-    
-    
-    //Find prescriptions with follow-up dates before specified date
-     // Search prescriptions by problem description
-    
+    @EntityGraph(attributePaths = {"doctor", "patient", "appointment"})
+    @Query("SELECT pr FROM Prescription pr WHERE pr.doctor.id = :doctorId AND pr.status = :status")
+    List<Prescription> findByDoctorIdAndStatus(@Param("doctorId") Long doctorId, @Param("status") PrescriptionStatus status);
+
+    // Read-only list queries select straight into PrescriptionSummary (no entity hydration or dirty checking)
+    String SELECT_SUMMARY = "SELECT new com.learn.mediconnect.dto.PrescriptionSummary(" +
+            "pr.id, pr.prescriptionDate, p.id, p.name, d.id, d.name, pr.problem, pr.tests, pr.tablets, " +
+            "pr.capsules, pr.vaccines, pr.advice, pr.other, pr.followUpDate, pr.status) " +
+            "FROM Prescription pr JOIN pr.patient p JOIN pr.doctor d ";
+
+    // Keyset page ordered by id; the limit is page size + 1 to detect a following page
+    @Query(SELECT_SUMMARY + "WHERE pr.id > :afterId ORDER BY pr.id ASC")
+    List<PrescriptionSummary> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Forward-only stream for the NDJSON export; rows are fetched from a server-side cursor in batches.
+    // Must be consumed (and closed) inside a read-only transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_SUMMARY + "WHERE (:from IS NULL OR pr.prescriptionDate >= :from) " +
+           "AND (:to IS NULL OR pr.prescriptionDate <= :to) ORDER BY pr.id ASC")
+    Stream<PrescriptionSummary> streamForExport(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Medication search: prescriptions whose list holds an entry equal to :item (exact, case-sensitive).
+    // jsonb_contains is served by the per-column GIN indexes; the rest is the usual keyset page by id.
+    String SEARCH_FILTERS = "AND (:doctorId IS NULL OR d.id = :doctorId) " +
+            "AND (:from IS NULL OR pr.prescriptionDate >= :from) " +
+            "AND (:to IS NULL OR pr.prescriptionDate <= :to) " +
+            "AND pr.id > :afterId ORDER BY pr.id ASC";
+
+    @Query(SELECT_SUMMARY + "WHERE jsonb_contains(pr.tests, :item) = true " + SEARCH_FILTERS)
+    List<PrescriptionSummary> searchTests(@Param("item") String item, @Param("doctorId") Long doctorId,
+                                          @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                          @Param("afterId") Long afterId, Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE jsonb_contains(pr.tablets, :item) = true " + SEARCH_FILTERS)
+    List<PrescriptionSummary> searchTablets(@Param("item") String item, @Param("doctorId") Long doctorId,
+                                            @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                            @Param("afterId") Long afterId, Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE jsonb_contains(pr.capsules, :item) = true " + SEARCH_FILTERS)
+    List<PrescriptionSummary> searchCapsules(@Param("item") String item, @Param("doctorId") Long doctorId,
+                                             @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                             @Param("afterId") Long afterId, Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE jsonb_contains(pr.vaccines, :item) = true " + SEARCH_FILTERS)
+    List<PrescriptionSummary> searchVaccines(@Param("item") String item, @Param("doctorId") Long doctorId,
+                                             @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                             @Param("afterId") Long afterId, Limit limit);
+
+    // Any of the four lists; PostgreSQL combines the four GIN index scans with a BitmapOr
+    @Query(SELECT_SUMMARY + "WHERE (jsonb_contains(pr.tests, :item) = true " +
+           "OR jsonb_contains(pr.tablets, :item) = true " +
+           "OR jsonb_contains(pr.capsules, :item) = true " +
+           "OR jsonb_contains(pr.vaccines, :item) = true) " + SEARCH_FILTERS)
+    List<PrescriptionSummary> searchAnyItem(@Param("item") String item, @Param("doctorId") Long doctorId,
+                                            @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                            @Param("afterId") Long afterId, Limit limit);
+
+    // Full-text search over problem, advice and other, best matches first.
+    // At least one of doctorId / patientId is expected so the ranking only sorts that scope's matches.
+    @Query(SELECT_SUMMARY + "WHERE prescription_text_matches(column(pr.search_vector), :query) = true " +
+           "AND (:doctorId IS NULL OR d.id = :doctorId) " +
+           "AND (:patientId IS NULL OR p.id = :patientId) " +
+           "ORDER BY prescription_text_rank(column(pr.search_vector), :query) DESC, pr.id DESC")
+    List<PrescriptionSummary> searchText(@Param("query") String query, @Param("doctorId") Long doctorId,
+                                         @Param("patientId") Long patientId, Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE p.id = :patientId")
+    List<PrescriptionSummary> findByPatientId(@Param("patientId") Long patientId);
+
+    @Query(SELECT_SUMMARY + "WHERE d.id = :doctorId")
+    List<PrescriptionSummary> findByDoctorId(@Param("doctorId") Long doctorId);
 
     // Find prescriptions by patient and doctor
-    List<Prescription> findByPatientIdAndDoctorId(Long patientId, Long doctorId);
+    @Query(SELECT_SUMMARY + "WHERE p.id = :patientId AND d.id = :doctorId")
+    List<PrescriptionSummary> findByPatientIdAndDoctorId(@Param("patientId") Long patientId,
+                                                         @Param("doctorId") Long doctorId);
 
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.learn.mediconnect.repository;
 
 import com.learn.mediconnect.entity.Specialization;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,7 +14,14 @@ import java.util.Optional;
 @Repository
 public interface SpecializationRepository extends JpaRepository<Specialization, Long> {
 
+    // Served from the query cache; Hibernate invalidates it whenever the specializations table is written
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Specialization> findAll();
+
     boolean existsByName(String name);
 
+    Optional<Specialization> findFirstByNameIgnoreCaseOrderByIdAsc(String name);
+
 }
 
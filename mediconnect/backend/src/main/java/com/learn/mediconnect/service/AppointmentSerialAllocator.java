@@ -0,0 +1,48 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.repository.AppointmentSerialCounterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+
+// Hands out visiting serial numbers per doctor per day.
+// Must run inside the booking transaction so a rolled back booking also rolls back its serial (no gaps).
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class AppointmentSerialAllocator {
+
+    private final AppointmentSerialCounterRepository counterRepository;
+
+    @Autowired
+    public AppointmentSerialAllocator(AppointmentSerialCounterRepository counterRepository) {
+        this.counterRepository = counterRepository;
+    }
+
+    public Integer allocate(Long doctorId, LocalDate visitingDate) {
+        return allocate(doctorId, visitingDate, 1);
+    }
+
+    // Reserve count consecutive serials and return the last one
+    public Integer allocate(Long doctorId, LocalDate visitingDate, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Serial count must be at least 1");
+        }
+        if (counterRepository.incrementCounter(doctorId, visitingDate, count) == 0
+                && counterRepository.insertCounter(doctorId, visitingDate, count) == 0) {
+            // Another booking created the counter concurrently, so it exists now
+            counterRepository.incrementCounter(doctorId, visitingDate, count);
+        }
+        return counterRepository.findLastSerial(doctorId, visitingDate);
+    }
+
+    // Give a serial back when its appointment moves away, as long as nobody was booked after it
+    public void release(Long doctorId, LocalDate visitingDate, Integer serial) {
+        if (serial != null) {
+            counterRepository.releaseLastSerial(doctorId, visitingDate, serial);
+        }
+    }
+}
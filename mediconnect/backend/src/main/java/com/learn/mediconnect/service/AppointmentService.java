@@ -1,42 +1,110 @@
 package com.learn.mediconnect.service;
 
+import com.learn.mediconnect.config.PageSizeLimits;
+import com.learn.mediconnect.dto.AppointmentSummary;
+import com.learn.mediconnect.dto.CursorPage;
 import com.learn.mediconnect.entity.Appointment;
 import com.learn.mediconnect.entity.Appointment.AppointmentStatus;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.OutboxEvent.EventType;
+import com.learn.mediconnect.entity.Patient;
 import com.learn.mediconnect.repository.AppointmentRepository;
+import com.learn.mediconnect.repository.DoctorRepository.DoctorAndPatient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 @Transactional
 public class AppointmentService {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final AppointmentRepository appointmentRepository;
-    private final DoctorService doctorService;
-    private final PatientService patientService;
+    private final ReferenceValidator referenceValidator;
+    private final AppointmentSerialAllocator serialAllocator;
+    private final PageSizeLimits pageSizeLimits;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
 
     @Autowired
     public AppointmentService(AppointmentRepository appointmentRepository, 
-                            DoctorService doctorService, 
-                            PatientService patientService) {
+                            ReferenceValidator referenceValidator,
+                            AppointmentSerialAllocator serialAllocator,
+                            PageSizeLimits pageSizeLimits,
+                            ApplicationEventPublisher eventPublisher,
+                            OutboxService outboxService) {
         this.appointmentRepository = appointmentRepository;
-        this.doctorService = doctorService;
-        this.patientService = patientService;
+        this.referenceValidator = referenceValidator;
+        this.serialAllocator = serialAllocator;
+        this.pageSizeLimits = pageSizeLimits;
+        this.eventPublisher = eventPublisher;
+        this.outboxService = outboxService;
     }
 
     public Appointment createAppointment(Appointment appointment) {
         validateAppointmentForCreation(appointment);
+        DoctorAndPatient references = referenceValidator.requireDoctorAndPatient(
+                appointment.getDoctor().getId(), appointment.getPatient().getId());
+        appointment.setDoctor(references.doctor());
+        appointment.setPatient(references.patient());
+        // Ids are assigned from appointments_id_seq
+        appointment.setId(null);
         appointment.setBookingDate(LocalDate.now());
         appointment.setStatus(AppointmentStatus.SCHEDULED);
         
         // Generate and set the next serial number for this doctor and date
-        Integer nextSerialNumber = getNextSerialNumber(appointment.getDoctor().getId(), appointment.getVisitingDate());
+        Integer nextSerialNumber = serialAllocator.allocate(appointment.getDoctor().getId(), appointment.getVisitingDate());
         appointment.setVisitingSerialNumber(nextSerialNumber);
         
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        publishQueueChange(saved);
+        outboxService.appointmentChanged(saved, EventType.CREATED);
+        return saved;
+    }
+
+    // Books all appointments in one transaction; serials are reserved per doctor/date before any insert
+    // so the inserts are flushed together as JDBC batches
+    public List<Appointment> createAppointments(List<Appointment> appointments) {
+        validateBatchSize(appointments);
+        appointments.forEach(this::validateAppointmentForCreation);
+        Map<Long, Doctor> doctors = referenceValidator.requireDoctors(
+                appointments.stream().map(appointment -> appointment.getDoctor().getId()).toList());
+        Map<Long, Patient> patients = referenceValidator.requirePatients(
+                appointments.stream().map(appointment -> appointment.getPatient().getId()).toList());
+
+        Map<SerialKey, List<Appointment>> byDoctorAndDate = new TreeMap<>();
+        for (Appointment appointment : appointments) {
+            appointment.setId(null);
+            appointment.setDoctor(doctors.get(appointment.getDoctor().getId()));
+            appointment.setPatient(patients.get(appointment.getPatient().getId()));
+            appointment.setBookingDate(LocalDate.now());
+            appointment.setStatus(AppointmentStatus.SCHEDULED);
+            byDoctorAndDate.computeIfAbsent(new SerialKey(appointment.getDoctor().getId(), appointment.getVisitingDate()),
+                    key -> new ArrayList<>()).add(appointment);
+        }
+
+        // Counters are locked in key order so concurrent batches cannot deadlock on each other
+        byDoctorAndDate.forEach((key, group) -> {
+            int serial = serialAllocator.allocate(key.doctorId(), key.visitingDate(), group.size()) - group.size();
+            for (Appointment appointment : group) {
+                appointment.setVisitingSerialNumber(++serial);
+            }
+        });
+
+        List<Appointment> saved = appointmentRepository.saveAll(appointments);
+        saved.forEach(this::publishQueueChange);
+        outboxService.appointmentsChanged(saved, EventType.CREATED);
+        return saved;
     }
 
     public Appointment updateAppointment(Long id, Appointment updatedAppointment) {
@@ -44,41 +112,64 @@ public class AppointmentService {
         validateAppointmentForUpdate(existingAppointment, updatedAppointment);
         
         // Check if visiting date is being changed
-        boolean dateChanged = !existingAppointment.getVisitingDate().equals(updatedAppointment.getVisitingDate());
+        LocalDate previousDate = existingAppointment.getVisitingDate();
+        boolean dateChanged = !previousDate.equals(updatedAppointment.getVisitingDate());
+        
+        // If date changed, free the old serial and assign a new serial number for the new date
+        // (before the fields change, so the allocator's queries don't flush the half-moved appointment)
+        if (dateChanged) {
+            Long doctorId = existingAppointment.getDoctor().getId();
+            serialAllocator.release(doctorId, previousDate, existingAppointment.getVisitingSerialNumber());
+            Integer newSerialNumber = serialAllocator.allocate(doctorId, updatedAppointment.getVisitingDate());
+            existingAppointment.setVisitingSerialNumber(newSerialNumber);
+            eventPublisher.publishEvent(new DoctorQueueService.QueueEntryRemoved(
+                    existingAppointment.getId(), doctorId, previousDate));
+        }
         
         // Update fields
         existingAppointment.setVisitingDate(updatedAppointment.getVisitingDate());
         existingAppointment.setProblemDescription(updatedAppointment.getProblemDescription());
         existingAppointment.setStatus(updatedAppointment.getStatus());
         
-        // If date changed, assign new serial number for the new date
-        if (dateChanged) {
-            Integer newSerialNumber = getNextSerialNumber(existingAppointment.getDoctor().getId(), updatedAppointment.getVisitingDate());
-            existingAppointment.setVisitingSerialNumber(newSerialNumber);
-        }
-        
-        return appointmentRepository.save(existingAppointment);
+        Appointment saved = appointmentRepository.save(existingAppointment);
+        publishQueueChange(saved);
+        outboxService.appointmentChanged(saved, EventType.UPDATED);
+        return saved;
     }
 
     @Transactional(readOnly = true)
     public Appointment getAppointmentById(Long id) {
-        Appointment appointment = appointmentRepository.findById(id)
+        return appointmentRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Appointment not found with ID: " + id));
-        initializeAppointmentRelationships(appointment);
-        return appointment;
     }
 
     @Transactional(readOnly = true)
-    public List<Appointment> getAllAppointments() {
-        List<Appointment> appointments = appointmentRepository.findAll();
-        return initializeAppointmentRelationships(appointments);
+    public CursorPage<AppointmentSummary> getAllAppointments(String cursor, Integer size) {
+        int pageSize = pageSizeLimits.resolve(size);
+        List<AppointmentSummary> rows = appointmentRepository.findPageAfter(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, AppointmentSummary::id);
     }
 
-    public void deleteAppointment(Long id) {
-        if (!appointmentRepository.existsById(id)) {
-            throw new IllegalArgumentException("Appointment not found with ID: " + id);
+    // Every status is present, with zero where there are no appointments in it
+    @Transactional(readOnly = true)
+    public Map<String, Long> countAppointmentsByStatus() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            counts.put(status.name(), 0L);
+        }
+        for (AppointmentRepository.StatusCount count : appointmentRepository.countByStatus()) {
+            counts.put(count.getStatus().name(), count.getTotal());
         }
-        appointmentRepository.deleteById(id);
+        return counts;
+    }
+
+    public void deleteAppointment(Long id) {
+        Appointment appointment = getAppointmentById(id);
+        appointmentRepository.delete(appointment);
+        outboxService.appointmentChanged(appointment, EventType.DELETED);
+        eventPublisher.publishEvent(new DoctorQueueService.QueueEntryRemoved(
+                id, appointment.getDoctor().getId(), appointment.getVisitingDate()));
     }
 
     public Appointment cancelAppointment(Long id) {
@@ -93,7 +184,10 @@ public class AppointmentService {
         }
         
         appointment.setStatus(AppointmentStatus.CANCELED);
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        publishQueueChange(saved);
+        outboxService.appointmentChanged(saved, EventType.CANCELED);
+        return saved;
     }
 
 
@@ -109,102 +203,84 @@ public class AppointmentService {
         }
         
         appointment.setStatus(AppointmentStatus.COMPLETED);
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        publishQueueChange(saved);
+        outboxService.appointmentChanged(saved, EventType.COMPLETED);
+        return saved;
     }
 
     
     @Transactional(readOnly = true)
-    public List<Appointment> getAppointmentsByDoctorId(Long doctorId) {
-        // Verify doctor exists
-        doctorService.getDoctorById(doctorId);
-        List<Appointment> appointments = appointmentRepository.findByDoctorId(doctorId);
-        return initializeAppointmentRelationships(appointments);
+    public List<AppointmentSummary> getAppointmentsByDoctorId(Long doctorId) {
+        return referenceValidator.listForDoctor(doctorId, () -> appointmentRepository.findSummariesByDoctorId(doctorId));
     }
 
     
     @Transactional(readOnly = true)
-    public List<Appointment> getAppointmentsByPatientId(Long patientId) {
-        // Verify patient exists
-        patientService.getPatientById(patientId);
-        List<Appointment> appointments = appointmentRepository.findByPatientId(patientId);
-        return initializeAppointmentRelationships(appointments);
+    public List<AppointmentSummary> getAppointmentsByPatientId(Long patientId) {
+        return referenceValidator.listForPatient(patientId, () -> appointmentRepository.findSummariesByPatientId(patientId));
     }
 
     
     @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByDoctorAndStatus(Long doctorId, AppointmentStatus status) {
-        // Verify doctor exists
-        doctorService.getDoctorById(doctorId);
-        List<Appointment> appointments = appointmentRepository.findByDoctorIdAndStatus(doctorId, status);
-        appointments.forEach(this::initializeAppointmentRelationships);
-        return appointments;
+        return referenceValidator.listForDoctor(doctorId, () -> appointmentRepository.findByDoctorIdAndStatus(doctorId, status));
     }
 
     @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByPatientAndStatus(Long patientId, AppointmentStatus status) {
-        // Verify patient exists
-        patientService.getPatientById(patientId);
-        List<Appointment> appointments = appointmentRepository.findByPatientIdAndStatus(patientId, status);
-        appointments.forEach(this::initializeAppointmentRelationships);
-        return appointments;
+        return referenceValidator.listForPatient(patientId, () -> appointmentRepository.findByPatientIdAndStatus(patientId, status));
     }
 
     @Transactional(readOnly = true)
-    public List<Appointment> getAppointmentsByDoctorAndDate(Long doctorId, LocalDate date) {
-        // Verify doctor exists
-        doctorService.getDoctorById(doctorId);
-        
-        List<Appointment> appointments = appointmentRepository.findByDoctorIdAndVisitingDate(doctorId, date);
-        return initializeAppointmentRelationships(appointments);
+    public List<AppointmentSummary> getAppointmentsByDoctorAndDate(Long doctorId, LocalDate date) {
+        return referenceValidator.listForDoctor(doctorId, () -> appointmentRepository.findByDoctorIdAndVisitingDate(doctorId, date));
     }
 
     @Transactional(readOnly = true)
-    public List<Appointment> getUpcomingAppointmentsByDoctor(Long doctorId) {
-        // Verify doctor exists
-        doctorService.getDoctorById(doctorId);
-        List<Appointment> appointments = appointmentRepository.findUpcomingAppointmentsByDoctor(doctorId, LocalDate.now());
-        return initializeAppointmentRelationships(appointments);
+    public List<AppointmentSummary> getUpcomingAppointmentsByDoctor(Long doctorId) {
+        return referenceValidator.listForDoctor(doctorId, () -> appointmentRepository.findUpcomingAppointmentsByDoctor(doctorId, LocalDate.now()));
     }
 
     
     @Transactional(readOnly = true)
-    public List<Appointment> getUpcomingAppointmentsByPatient(Long patientId) {
-        // Verify patient exists
-        patientService.getPatientById(patientId);
-        List<Appointment> appointments = appointmentRepository.findUpcomingAppointmentsByPatient(patientId, LocalDate.now());
-        return initializeAppointmentRelationships(appointments);
+    public List<AppointmentSummary> getUpcomingAppointmentsByPatient(Long patientId) {
+        return referenceValidator.listForPatient(patientId, () -> appointmentRepository.findUpcomingAppointmentsByPatient(patientId, LocalDate.now()));
     }
 
     
     
     @Transactional(readOnly = true)
-    public Integer getNextSerialNumber(Long doctorId, LocalDate visitingDate) {
-        List<Appointment> existingAppointments = appointmentRepository.findByDoctorIdAndVisitingDate(doctorId, visitingDate);
-        
-        if (existingAppointments.isEmpty()) {
-            return 1;
-        }
-        
-        // Find the maximum serial number
-        Integer maxSerialNumber = existingAppointments.stream()
-                .mapToInt(a -> a.getVisitingSerialNumber() != null ? a.getVisitingSerialNumber() : 0)
-                .max()
-                .orElse(0);
-        
-        return maxSerialNumber + 1;
+    public List<AppointmentSummary> getAppointmentsByDoctorAndDateOrderedBySerial(Long doctorId, LocalDate visitingDate) {
+        return referenceValidator.listForDoctor(doctorId, () -> appointmentRepository.findByDoctorIdAndVisitingDate(doctorId, visitingDate));
     }
 
     
-    @Transactional(readOnly = true)
-    public List<Appointment> getAppointmentsByDoctorAndDateOrderedBySerial(Long doctorId, LocalDate visitingDate) {
-        // Verify doctor exists
-        doctorService.getDoctorById(doctorId);
-        
-        List<Appointment> appointments = appointmentRepository.findByDoctorIdAndVisitingDateOrderByVisitingSerialNumberAsc(doctorId, visitingDate);
-        return initializeAppointmentRelationships(appointments);
+    // Keeps DoctorQueueService in step once the surrounding transaction commits
+    private void publishQueueChange(Appointment appointment) {
+        eventPublisher.publishEvent(new DoctorQueueService.QueueEntryChanged(appointment.getId(),
+                appointment.getDoctor().getId(), appointment.getVisitingDate(),
+                appointment.getVisitingSerialNumber(), appointment.getStatus()));
+    }
+
+    private void validateBatchSize(List<Appointment> appointments) {
+        if (appointments == null || appointments.isEmpty()) {
+            throw new IllegalArgumentException("At least one appointment is required");
+        }
+        if (appointments.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch can contain at most " + MAX_BATCH_SIZE + " appointments");
+        }
+    }
+
+    private record SerialKey(Long doctorId, LocalDate visitingDate) implements Comparable<SerialKey> {
+
+        @Override
+        public int compareTo(SerialKey other) {
+            int byDoctor = doctorId.compareTo(other.doctorId);
+            return byDoctor != 0 ? byDoctor : visitingDate.compareTo(other.visitingDate);
+        }
     }
 
-    
     private void validateAppointmentForCreation(Appointment appointment) {
         if (appointment == null) {
             throw new IllegalArgumentException("Appointment cannot be null");
@@ -222,10 +298,6 @@ public class AppointmentService {
             throw new IllegalArgumentException("Visiting date is required");
         }
         
-        // Verify doctor and patient exist
-        doctorService.getDoctorById(appointment.getDoctor().getId());
-        patientService.getPatientById(appointment.getPatient().getId());
-        
         // Check if visiting date is today or in the future
         if (appointment.getVisitingDate().isBefore(LocalDate.now())) {
             throw new IllegalArgumentException("Visiting date must be today or in the future");
@@ -257,19 +329,4 @@ public class AppointmentService {
             }
         }
     }
-    
-    // Helper method to initialize lazy relationships
-    private List<Appointment> initializeAppointmentRelationships(List<Appointment> appointments) {
-        for (Appointment appointment : appointments) {
-            initializeAppointmentRelationships(appointment);
-        }
-        return appointments;
-    }
-
-    // Helper method to initialize lazy relationships for a single appointment
-    private void initializeAppointmentRelationships(Appointment appointment) {
-        // Force initialization of lazy relationships
-        appointment.getDoctor().getName(); // Initialize doctor
-        appointment.getPatient().getName(); // Initialize patient
-    }
 }
\ No newline at end of file
@@ -4,10 +4,12 @@ import com.learn.mediconnect.entity.Doctor;
 import com.learn.mediconnect.entity.Patient;
 import com.learn.mediconnect.repository.DoctorRepository;
 import com.learn.mediconnect.repository.PatientRepository;
+import com.learn.mediconnect.service.SessionTokenService.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+
 @Service
 public class AuthService {
     
@@ -17,6 +19,9 @@ public class AuthService {
     @Autowired
     private PatientRepository patientRepository;
     
+    @Autowired
+    private SessionVersionCache sessionVersionCache;
+    
     @Value("${SUPER_ADMIN_USERNAME:admin}")
     private String adminUsername;
     
@@ -51,6 +56,19 @@ public class AuthService {
         return patientRepository.findByUsername(username);
     }
     
+    // Revocation check for session tokens: the token's version must still match the user's row, so a token issued
+    // before a username/password change or for a deleted user is refused. Admin sessions have no row; they must
+    // name the currently configured SUPER_ADMIN_USERNAME, so changing it ends the old admin's sessions.
+    // Versions come from SessionVersionCache, so a repeat check for the same user needs no query.
+    public boolean isSessionCurrent(Session session) {
+        if (session.userId() == null) {
+            return "admin".equals(session.userType()) && adminUsername.equals(session.username());
+        }
+        return sessionVersionCache.currentVersion(session.userType(), session.userId())
+                .map(current -> current == session.sessionVersion())
+                .orElse(false);
+    }
+    
     public Patient registerPatient(com.learn.mediconnect.dto.PatientDTO patientDTO) {
         // Validate required fields
         if (patientDTO.getPassword() == null || patientDTO.getPassword().trim().isEmpty()) {
@@ -67,19 +85,8 @@ public class AuthService {
             throw new RuntimeException("Username already taken");
         }
         
-        // Generate new ID (manual assignment as per entity design)
-        // Find the maximum existing ID and add 1, ensuring uniqueness
-        Long nextId;
-        do {
-            nextId = patientRepository.findAll().stream()
-                .mapToLong(Patient::getId)
-                .max()
-                .orElse(0L) + 1;
-        } while (patientRepository.existsById(nextId));
-        
-        // Create new patient entity
+        // Create new patient entity (id is assigned from patients_id_seq on save)
         Patient patient = new Patient();
-        patient.setId(nextId);
         patient.setName(patientDTO.getName());
         patient.setEmail(patientDTO.getEmail());
         patient.setUsername(patientDTO.getUsername());
@@ -1,5 +1,6 @@
 package com.learn.mediconnect.service;
 
+import com.learn.mediconnect.service.SessionTokenService.Session;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -30,12 +31,19 @@ public class AuthorizationService {
         return auth != null ? auth.getName() : null;
     }
     
-    public boolean canAccessDoctorProfile(String doctorUsername) {
-        return isAdmin() || (isDoctor() && doctorUsername.equals(getCurrentUsername()));
+    // Id of the signed-in doctor or patient from the session token (null for admins and non-token authentication).
+    // Ownership is decided on this id: a username can be changed or reused by a later account.
+    public Long getCurrentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof Session session ? session.userId() : null;
+    }
+    
+    public boolean canAccessDoctorProfile(Long doctorId) {
+        return isAdmin() || (isDoctor() && doctorId != null && doctorId.equals(getCurrentUserId()));
     }
     
-    public boolean canAccessPatientProfile(String patientUsername) {
-        return isAdmin() || (isPatient() && patientUsername.equals(getCurrentUsername()));
+    public boolean canAccessPatientProfile(Long patientId) {
+        return isAdmin() || (isPatient() && patientId != null && patientId.equals(getCurrentUserId()));
     }
     
     public boolean canCreatePrescription() {
@@ -46,7 +54,7 @@ public class AuthorizationService {
         return isAdmin() || isPatient();
     }
     
-    public boolean canUpdateAppointment(String patientUsername) {
-        return isAdmin() || (isPatient() && patientUsername.equals(getCurrentUsername()));
+    public boolean canUpdateAppointment(Long patientId) {
+        return isAdmin() || (isPatient() && patientId != null && patientId.equals(getCurrentUserId()));
     }
 }
\ No newline at end of file
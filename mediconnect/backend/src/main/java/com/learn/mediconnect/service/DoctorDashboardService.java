@@ -0,0 +1,113 @@
+package com.learn.mediconnect.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learn.mediconnect.dto.DoctorDashboard;
+import com.learn.mediconnect.entity.Appointment.AppointmentStatus;
+import com.learn.mediconnect.entity.Prescription.PrescriptionStatus;
+import com.learn.mediconnect.repository.AppointmentRepository;
+import com.learn.mediconnect.repository.AppointmentRepository.DashboardCount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+// Counts behind the doctor dashboard, from one aggregate query per (doctor, window).
+// Results are cached for a short TTL, so a dashboard may lag writes by up to doctor-dashboard.cache-ttl.
+@Service
+public class DoctorDashboardService {
+
+    private static final int DEFAULT_DAYS = 7;
+
+    private final AppointmentRepository appointmentRepository;
+    private final ReferenceValidator referenceValidator;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxDays;
+    private final Cache<DashboardKey, DoctorDashboard> dashboards;
+
+    @Autowired
+    public DoctorDashboardService(AppointmentRepository appointmentRepository,
+                                  ReferenceValidator referenceValidator,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${doctor-dashboard.cache-ttl}") Duration cacheTtl,
+                                  @Value("${doctor-dashboard.cache-size}") long cacheSize,
+                                  @Value("${doctor-dashboard.max-days}") int maxDays) {
+        this.appointmentRepository = appointmentRepository;
+        this.referenceValidator = referenceValidator;
+        // Only cache misses open a transaction; read-only so the aggregate can be served by a read replica
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.maxDays = maxDays;
+        this.dashboards = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    // Without a window the dashboard covers the week starting today
+    public DoctorDashboard getDashboard(Long doctorId, LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(DEFAULT_DAYS - 1);
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Dashboard window ends before it starts: " + start + " to " + end);
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= maxDays) {
+            throw new IllegalArgumentException("Dashboard window is limited to " + maxDays + " days");
+        }
+        // Concurrent misses for the same key wait for one load instead of each running the query
+        return dashboards.get(new DashboardKey(doctorId, start, end), this::load);
+    }
+
+    private DoctorDashboard load(DashboardKey key) {
+        List<DashboardCount> counts = transactionTemplate.execute(status -> referenceValidator.listForDoctor(key.doctorId(),
+                () -> appointmentRepository.countForDashboard(key.doctorId(), key.from(), key.to())));
+
+        Map<String, Long> appointmentTotals = zeroAppointmentCounts();
+        Map<String, Long> prescriptionTotals = zeroPrescriptionCounts();
+        Map<LocalDate, DoctorDashboard.Day> days = new LinkedHashMap<>();
+        for (LocalDate date = key.from(); !date.isAfter(key.to()); date = date.plusDays(1)) {
+            days.put(date, new DoctorDashboard.Day(date, zeroAppointmentCounts(), zeroPrescriptionCounts()));
+        }
+
+        for (DashboardCount count : counts) {
+            DoctorDashboard.Day day = days.get(count.getCountDate());
+            if ("APPOINTMENT".equals(count.getKind())) {
+                appointmentTotals.merge(count.getStatus(), count.getTotal(), Long::sum);
+                day.appointmentsByStatus().merge(count.getStatus(), count.getTotal(), Long::sum);
+            } else {
+                prescriptionTotals.merge(count.getStatus(), count.getTotal(), Long::sum);
+                day.prescriptionsByStatus().merge(count.getStatus(), count.getTotal(), Long::sum);
+            }
+        }
+        return new DoctorDashboard(key.doctorId(), key.from(), key.to(), appointmentTotals, prescriptionTotals,
+                new ArrayList<>(days.values()));
+    }
+
+    private static Map<String, Long> zeroAppointmentCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            counts.put(status.name(), 0L);
+        }
+        return counts;
+    }
+
+    private static Map<String, Long> zeroPrescriptionCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (PrescriptionStatus status : PrescriptionStatus.values()) {
+            counts.put(status.name(), 0L);
+        }
+        return counts;
+    }
+
+    private record DashboardKey(Long doctorId, LocalDate from, LocalDate to) {}
+}
@@ -0,0 +1,236 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.config.ReplicaRoutingDataSource;
+import com.learn.mediconnect.dto.DoctorSummary;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Specialization;
+import com.learn.mediconnect.repository.DoctorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+
+// In-memory specialization -> doctors and weekday -> doctors lookup over read-only DoctorSummary rows.
+// Committed writes on this instance are applied on the task executor, so the writing request never waits for it
+// and lookups may lag a write by a moment: a doctor write reloads just that doctor, a specialization write
+// rebuilds everything, and writes arriving while one is being applied are coalesced into the next pass.
+// A full rebuild also runs on a fixed delay so writes made through other instances show up too.
+@Component
+public class DoctorDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorDirectory.class);
+
+    private final DoctorRepository doctorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    // Held across the JDBC read, so a ReentrantLock rather than synchronized (which pins virtual threads)
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Writes not yet applied, and whether a drain of them is queued or running on the executor
+    private final Set<Long> changedDoctorIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public DoctorDirectory(DoctorRepository doctorRepository, PlatformTransactionManager transactionManager,
+                           @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.doctorRepository = doctorRepository;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Runs after the triggering transaction has committed, so it needs its own
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public List<DoctorSummary> findBySpecialization(String specialization) {
+        return currentSnapshot().bySpecialization().getOrDefault(normalize(specialization), List.of());
+    }
+
+    public List<DoctorSummary> findByVisitingDay(DayOfWeek day) {
+        return currentSnapshot().byVisitingDay().getOrDefault(day, List.of());
+    }
+
+    // Rebuilds and single-doctor updates are serialized so an older read can never replace a newer snapshot
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${doctor-directory.refresh-interval:PT5M}",
+               initialDelayString = "${doctor-directory.refresh-interval:PT5M}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            // Always from the primary: a lagging replica could replace a newer snapshot with an older one
+            snapshot = ReplicaRoutingDataSource.onPrimary(() -> transactionTemplate.execute(status ->
+                    Snapshot.of(doctorRepository.findAllWithDirectoryLinks().stream().map(Entry::of).toList())));
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDirectoryChanged(DirectoryChanged event) {
+        if (event.doctorId() == null) {
+            rebuildRequested.set(true);
+        } else {
+            changedDoctorIds.add(event.doctorId());
+        }
+        if (draining.compareAndSet(false, true)) {
+            taskExecutor.execute(this::drainChanges);
+        }
+    }
+
+    private void drainChanges() {
+        do {
+            try {
+                if (rebuildRequested.getAndSet(false)) {
+                    // Ids queued so far are covered by the full read
+                    changedDoctorIds.clear();
+                    rebuild();
+                } else {
+                    applyChanges(takeChangedDoctorIds());
+                }
+            } catch (RuntimeException e) {
+                // The scheduled rebuild catches up
+                log.warn("Doctor directory update failed: {}", e.getMessage());
+            } finally {
+                draining.set(false);
+            }
+        } while ((rebuildRequested.get() || !changedDoctorIds.isEmpty()) && draining.compareAndSet(false, true));
+    }
+
+    private void applyChanges(Set<Long> doctorIds) {
+        if (doctorIds.isEmpty()) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                rebuild();
+                return;
+            }
+            SortedMap<Long, Entry> entries = new TreeMap<>(current.entries());
+            snapshot = ReplicaRoutingDataSource.onPrimary(() -> transactionTemplate.execute(status -> {
+                for (Long id : doctorIds) {
+                    // A deleted doctor simply drops out
+                    entries.remove(id);
+                    doctorRepository.findWithDirectoryLinksById(id).ifPresent(doctor -> entries.put(id, Entry.of(doctor)));
+                }
+                return Snapshot.of(entries.values());
+            }));
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Set<Long> takeChangedDoctorIds() {
+        Set<Long> taken = new HashSet<>();
+        for (Iterator<Long> ids = changedDoctorIds.iterator(); ids.hasNext(); ) {
+            taken.add(ids.next());
+            ids.remove();
+        }
+        return taken;
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuildLock.lock();
+            try {
+                if (snapshot == null) {
+                    rebuild();
+                }
+                current = snapshot;
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    // Case-insensitive day name such as "monday"; empty for anything else
+    public static Optional<DayOfWeek> parseDay(String day) {
+        try {
+            return Optional.of(DayOfWeek.valueOf(day.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // A doctor as the directory sees it: the summary it returns and the keys it is listed under
+    private record Entry(DoctorSummary doctor, Set<String> specializations, Set<DayOfWeek> visitingDays) {
+
+        static Entry of(Doctor doctor) {
+            DoctorSummary summary = new DoctorSummary(doctor.getId(), doctor.getName(), doctor.getEmail(),
+                    doctor.getPhone(), doctor.getUsername(), doctor.getSpecializations(), doctor.getVisitingDays(),
+                    doctor.getPic());
+            Set<String> specializations = doctor.getSpecializationLinks().stream()
+                    .map(Specialization::getName)
+                    .map(DoctorDirectory::normalize)
+                    .collect(Collectors.toUnmodifiableSet());
+            return new Entry(summary, specializations, Set.copyOf(doctor.getVisitingDayLinks()));
+        }
+    }
+
+    private record Snapshot(SortedMap<Long, Entry> entries,
+                            Map<String, List<DoctorSummary>> bySpecialization,
+                            Map<DayOfWeek, List<DoctorSummary>> byVisitingDay) {
+
+        // Lists keep the doctors in id order
+        static Snapshot of(Iterable<Entry> doctors) {
+            SortedMap<Long, Entry> entries = new TreeMap<>();
+            Map<String, List<DoctorSummary>> bySpecialization = new HashMap<>();
+            Map<DayOfWeek, List<DoctorSummary>> byVisitingDay = new EnumMap<>(DayOfWeek.class);
+            for (Entry entry : doctors) {
+                entries.put(entry.doctor().id(), entry);
+            }
+            for (Entry entry : entries.values()) {
+                for (String specialization : entry.specializations()) {
+                    bySpecialization.computeIfAbsent(specialization, key -> new ArrayList<>()).add(entry.doctor());
+                }
+                for (DayOfWeek day : entry.visitingDays()) {
+                    byVisitingDay.computeIfAbsent(day, key -> new ArrayList<>()).add(entry.doctor());
+                }
+            }
+            bySpecialization.replaceAll((key, summaries) -> List.copyOf(summaries));
+            byVisitingDay.replaceAll((key, summaries) -> List.copyOf(summaries));
+            return new Snapshot(entries, Map.copyOf(bySpecialization), byVisitingDay);
+        }
+    }
+
+    // Published by services whose writes change what the directory returns: the doctor written, or null when the
+    // write can affect any number of doctors (a specialization rename)
+    public record DirectoryChanged(Long doctorId) {}
+}
@@ -0,0 +1,301 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.config.ReplicaRoutingDataSource;
+import com.learn.mediconnect.dto.AppointmentSummary;
+import com.learn.mediconnect.dto.QueueUpdate;
+import com.learn.mediconnect.entity.Appointment.AppointmentStatus;
+import com.learn.mediconnect.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+
+// Live per-(doctor, date) appointment queues for the queue stream.
+// A queue is loaded from the database when its first subscriber arrives, kept current from committed
+// appointment changes on this instance, and dropped when its last subscriber leaves.
+// Only changes committed through this instance reach its subscribers, so the stream assumes a single backend
+// instance; behind a load balancer with several, a subscriber misses bookings made through the others until it
+// reconnects (each reconnect loads the queue afresh).
+// Updates are handed to the task executor per subscriber, so the committing thread never writes to a client.
+@Service
+public class DoctorQueueService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final ReferenceValidator referenceValidator;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final Map<QueueKey, DayQueue> queues = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DoctorQueueService(AppointmentRepository appointmentRepository,
+                              ReferenceValidator referenceValidator,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.appointmentRepository = appointmentRepository;
+        this.referenceValidator = referenceValidator;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Change events arrive after the booking transaction has committed, so loads need their own
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // The listener receives the current state and then every change to it, in order, on an executor thread.
+    // With an appointmentId the updates also carry that appointment's serial and position.
+    public Subscription subscribe(Long doctorId, LocalDate visitingDate, Long appointmentId, Consumer<QueueUpdate> listener) {
+        referenceValidator.requireDoctor(doctorId);
+
+        QueueKey key = new QueueKey(doctorId, visitingDate);
+        Subscriber subscriber = new Subscriber(appointmentId, listener, taskExecutor);
+        DayQueue queue;
+        synchronized (queues) {
+            queue = queues.computeIfAbsent(key, DayQueue::new);
+            queue.subscribers.add(subscriber);
+        }
+        Subscription subscription = () -> unsubscribe(queue, subscriber);
+
+        // From the primary: changes committed before the load are not replayed, so the load must already see them
+        long version = queue.ensureLoaded(() -> ReplicaRoutingDataSource.onPrimary(() -> transactionTemplate.execute(
+                status -> appointmentRepository.findByDoctorIdAndVisitingDate(doctorId, visitingDate))));
+        if (appointmentId != null && !queue.contains(appointmentId)) {
+            subscription.cancel();
+            throw new IllegalArgumentException("Appointment " + appointmentId + " is not in this doctor's queue for " + visitingDate);
+        }
+        subscriber.offer(version, queue.updateFor(subscriber));
+        return subscription;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQueueEntryChanged(QueueEntryChanged event) {
+        DayQueue queue = queues.get(new QueueKey(event.doctorId(), event.visitingDate()));
+        if (queue != null) {
+            queue.publish(queue.apply(entries -> entries.put(event.appointmentId(),
+                    new Entry(event.serial(), event.status()))));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQueueEntryRemoved(QueueEntryRemoved event) {
+        DayQueue queue = queues.get(new QueueKey(event.doctorId(), event.visitingDate()));
+        if (queue != null) {
+            queue.publish(queue.apply(entries -> entries.remove(event.appointmentId())));
+        }
+    }
+
+    private void unsubscribe(DayQueue queue, Subscriber subscriber) {
+        synchronized (queues) {
+            queue.subscribers.remove(subscriber);
+            if (queue.subscribers.isEmpty()) {
+                queues.remove(queue.key, queue);
+            }
+        }
+    }
+
+    public interface Subscription {
+        void cancel();
+    }
+
+    // Published by AppointmentService when an appointment is booked, moved or changes status
+    public record QueueEntryChanged(Long appointmentId, Long doctorId, LocalDate visitingDate,
+                                    Integer serial, AppointmentStatus status) {}
+
+    // Published by AppointmentService when an appointment leaves a queue (moved to another date or deleted)
+    public record QueueEntryRemoved(Long appointmentId, Long doctorId, LocalDate visitingDate) {}
+
+    private record QueueKey(Long doctorId, LocalDate visitingDate) {}
+
+    private record Entry(Integer serial, AppointmentStatus status) {}
+
+    private static final class DayQueue {
+
+        private final QueueKey key;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final Map<Long, Entry> entries = new HashMap<>();
+        // Serializes the first load, which runs a query; synchronized there would pin a virtual thread
+        private final ReentrantLock loadLock = new ReentrantLock();
+        private final List<Consumer<Map<Long, Entry>>> changesDuringLoad = new ArrayList<>();
+        private boolean loading;
+        private boolean loaded;
+        private long version;
+
+        private DayQueue(QueueKey key) {
+            this.key = key;
+        }
+
+        long ensureLoaded(Supplier<List<AppointmentSummary>> loader) {
+            loadLock.lock();
+            try {
+                synchronized (this) {
+                    if (loaded) {
+                        return version;
+                    }
+                    loading = true;
+                }
+                List<AppointmentSummary> rows;
+                try {
+                    rows = loader.get();
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        loading = false;
+                        changesDuringLoad.clear();
+                    }
+                    throw e;
+                }
+                synchronized (this) {
+                    for (AppointmentSummary row : rows) {
+                        entries.put(row.id(), new Entry(row.visitingSerialNumber(), AppointmentStatus.valueOf(row.status())));
+                    }
+                    // The query may or may not have seen these; each carries the entry's latest state, so replaying is safe
+                    changesDuringLoad.forEach(change -> change.accept(entries));
+                    changesDuringLoad.clear();
+                    loading = false;
+                    loaded = true;
+                    return ++version;
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+
+        synchronized boolean contains(Long appointmentId) {
+            return entries.containsKey(appointmentId);
+        }
+
+        // Changes that arrive before the first load are already visible to that load, so they are skipped;
+        // changes that arrive while it runs are replayed on top of its result
+        synchronized List<PendingUpdate> apply(Consumer<Map<Long, Entry>> change) {
+            if (!loaded) {
+                if (loading) {
+                    changesDuringLoad.add(change);
+                }
+                return List.of();
+            }
+            change.accept(entries);
+            version++;
+            List<PendingUpdate> updates = new ArrayList<>(subscribers.size());
+            for (Subscriber subscriber : subscribers) {
+                updates.add(new PendingUpdate(subscriber, version, updateFor(subscriber)));
+            }
+            return updates;
+        }
+
+        // Queued outside the queue lock; delivery itself happens on the executor
+        void publish(List<PendingUpdate> updates) {
+            updates.forEach(update -> update.subscriber().offer(update.version(), update.update()));
+        }
+
+        synchronized QueueUpdate updateFor(Subscriber subscriber) {
+            Integer currentSerial = null;
+            int waiting = 0;
+            for (Entry entry : entries.values()) {
+                if (entry.status() == AppointmentStatus.SCHEDULED) {
+                    waiting++;
+                    if (currentSerial == null || entry.serial() < currentSerial) {
+                        currentSerial = entry.serial();
+                    }
+                }
+            }
+
+            Entry own = subscriber.appointmentId != null ? entries.get(subscriber.appointmentId) : null;
+            Integer position = null;
+            if (own != null && own.status() == AppointmentStatus.SCHEDULED) {
+                position = (int) entries.values().stream()
+                        .filter(entry -> entry.status() == AppointmentStatus.SCHEDULED && entry.serial() <= own.serial())
+                        .count();
+            }
+            return new QueueUpdate(key.doctorId(), key.visitingDate(), currentSerial, waiting,
+                    own != null ? subscriber.appointmentId : null,
+                    own != null ? own.serial() : null,
+                    position,
+                    own != null ? own.status().name() : null);
+        }
+    }
+
+    private record PendingUpdate(Subscriber subscriber, long version, QueueUpdate update) {}
+
+    private static final class Subscriber {
+
+        // Each update is the whole state, so a client that falls this far behind only loses intermediate states
+        private static final int MAX_PENDING = 32;
+
+        private final Long appointmentId;
+        private final Consumer<QueueUpdate> listener;
+        private final Executor executor;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<QueueUpdate> pending = new ArrayDeque<>();
+        private boolean delivering;
+        private long lastVersion = -1;
+        private QueueUpdate lastQueued;
+
+        private Subscriber(Long appointmentId, Consumer<QueueUpdate> listener, Executor executor) {
+            this.appointmentId = appointmentId;
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        // Drops stale and unchanged states so each subscriber only sees real deltas, in order.
+        // At most one delivery task runs per subscriber, so a slow client holds up nobody else.
+        void offer(long version, QueueUpdate update) {
+            lock.lock();
+            try {
+                if (version < lastVersion || update.equals(lastQueued)) {
+                    return;
+                }
+                lastVersion = version;
+                lastQueued = update;
+                if (pending.size() == MAX_PENDING) {
+                    pending.removeFirst();
+                }
+                pending.addLast(update);
+                if (delivering) {
+                    return;
+                }
+                delivering = true;
+            } finally {
+                lock.unlock();
+            }
+            executor.execute(this::deliver);
+        }
+
+        // The listener writes to the client's stream outside the lock
+        private void deliver() {
+            while (true) {
+                QueueUpdate next;
+                lock.lock();
+                try {
+                    next = pending.pollFirst();
+                    if (next == null) {
+                        delivering = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    listener.accept(next);
+                } catch (RuntimeException e) {
+                    // A closed stream; its emitter callbacks cancel the subscription, later updates are dropped too
+                }
+            }
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package com.learn.mediconnect.service;
 
+import com.learn.mediconnect.dto.DoctorSummary;
 import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Specialization;
 import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.SpecializationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 
 @Service
@@ -14,22 +24,38 @@ import java.util.List;
 public class DoctorService {
 
     private final DoctorRepository doctorRepository;
+    private final SpecializationRepository specializationRepository;
+    private final DoctorDirectory doctorDirectory;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public DoctorService(DoctorRepository doctorRepository) {
+    public DoctorService(DoctorRepository doctorRepository,
+                         SpecializationRepository specializationRepository,
+                         DoctorDirectory doctorDirectory,
+                         ApplicationEventPublisher eventPublisher) {
         this.doctorRepository = doctorRepository;
+        this.specializationRepository = specializationRepository;
+        this.doctorDirectory = doctorDirectory;
+        this.eventPublisher = eventPublisher;
     }
 
 
     public Doctor createDoctor(Doctor doctor) {
         validateDoctorForCreation(doctor);
-        return doctorRepository.save(doctor);
+        // Ids are assigned from doctors_id_seq
+        doctor.setId(null);
+        syncSpecializationLinks(doctor);
+        syncVisitingDayLinks(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        eventPublisher.publishEvent(new DoctorDirectory.DirectoryChanged(saved.getId()));
+        return saved;
     }
 
 
     public Doctor updateDoctor(Long id, Doctor updatedDoctor) {
         Doctor existingDoctor = getDoctorById(id);
         validateDoctorForUpdate(existingDoctor, updatedDoctor);
+        int sessionVersion = existingDoctor.getSessionVersion();
         
         // Update fields only if they are provided (not null)
         if (updatedDoctor.getName() != null && !updatedDoctor.getName().trim().isEmpty()) {
@@ -38,23 +64,35 @@ public class DoctorService {
         if (updatedDoctor.getEmail() != null && !updatedDoctor.getEmail().trim().isEmpty()) {
             existingDoctor.setEmail(updatedDoctor.getEmail());
         }
-        if (updatedDoctor.getUsername() != null && !updatedDoctor.getUsername().trim().isEmpty()) {
+        if (updatedDoctor.getUsername() != null && !updatedDoctor.getUsername().trim().isEmpty()
+                && !updatedDoctor.getUsername().equals(existingDoctor.getUsername())) {
             existingDoctor.setUsername(updatedDoctor.getUsername());
+            // Tokens issued for the old username are refused for writes from now on
+            existingDoctor.setSessionVersion(existingDoctor.getSessionVersion() + 1);
         }
-        if (updatedDoctor.getPassword() != null && !updatedDoctor.getPassword().trim().isEmpty()) {
+        if (updatedDoctor.getPassword() != null && !updatedDoctor.getPassword().trim().isEmpty()
+                && !updatedDoctor.getPassword().equals(existingDoctor.getPassword())) {
             existingDoctor.setPassword(updatedDoctor.getPassword());
+            existingDoctor.setSessionVersion(existingDoctor.getSessionVersion() + 1);
         }
         if (updatedDoctor.getPhone() != null && !updatedDoctor.getPhone().trim().isEmpty()) {
             existingDoctor.setPhone(updatedDoctor.getPhone());
         }
         if (updatedDoctor.getSpecializations() != null && !updatedDoctor.getSpecializations().trim().isEmpty()) {
             existingDoctor.setSpecializations(updatedDoctor.getSpecializations());
+            syncSpecializationLinks(existingDoctor);
         }
         if (updatedDoctor.getVisitingDays() != null && !updatedDoctor.getVisitingDays().trim().isEmpty()) {
             existingDoctor.setVisitingDays(updatedDoctor.getVisitingDays());
+            syncVisitingDayLinks(existingDoctor);
         }
         
-        return doctorRepository.save(existingDoctor);
+        Doctor saved = doctorRepository.save(existingDoctor);
+        eventPublisher.publishEvent(new DoctorDirectory.DirectoryChanged(id));
+        if (saved.getSessionVersion() != sessionVersion) {
+            eventPublisher.publishEvent(new SessionVersionCache.Changed("doctor", id));
+        }
+        return saved;
     }
 
 
@@ -76,24 +114,30 @@ public class DoctorService {
             throw new IllegalArgumentException("Doctor not found with ID: " + id);
         }
         doctorRepository.deleteById(id);
+        eventPublisher.publishEvent(new DoctorDirectory.DirectoryChanged(id));
+        eventPublisher.publishEvent(new SessionVersionCache.Changed("doctor", id));
     }
 
 
-    @Transactional(readOnly = true)
-    public List<Doctor> getDoctorsBySpecialization(String specialization) {
+    // Served from DoctorDirectory without a database round trip
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<DoctorSummary> getDoctorsBySpecialization(String specialization) {
         if (specialization == null || specialization.trim().isEmpty()) {
             throw new IllegalArgumentException("Specialization cannot be null or empty");
         }
-        return doctorRepository.findBySpecialization(specialization.trim());
+        return doctorDirectory.findBySpecialization(specialization);
     }
 
 
-    @Transactional(readOnly = true)
-    public List<Doctor> getDoctorsByVisitingDay(String day) {
+    // Served from DoctorDirectory without a database round trip; unknown day names match nobody
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<DoctorSummary> getDoctorsByVisitingDay(String day) {
         if (day == null || day.trim().isEmpty()) {
             throw new IllegalArgumentException("Day cannot be null or empty");
         }
-        return doctorRepository.findByVisitingDays(day.trim());
+        return DoctorDirectory.parseDay(day)
+                .map(doctorDirectory::findByVisitingDay)
+                .orElse(List.of());
     }
 
 
@@ -109,6 +153,41 @@ public class DoctorService {
     }
 
 
+    // Link each comma separated specialization name to its Specialization row, creating rows for new names
+    private void syncSpecializationLinks(Doctor doctor) {
+        Set<Specialization> links = new HashSet<>();
+        for (String name : splitList(doctor.getSpecializations())) {
+            links.add(specializationRepository.findFirstByNameIgnoreCaseOrderByIdAsc(name)
+                    .orElseGet(() -> specializationRepository.save(new Specialization(name))));
+        }
+        doctor.getSpecializationLinks().retainAll(links);
+        doctor.getSpecializationLinks().addAll(links);
+    }
+
+
+    // Like the V5 backfill, only full day names are linked; anything else ("Mon", "9am-5pm") stays in the
+    // free-text column, so saving a doctor whose migrated text has such values keeps working
+    private void syncVisitingDayLinks(Doctor doctor) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : splitList(doctor.getVisitingDays())) {
+            DoctorDirectory.parseDay(day).ifPresent(days::add);
+        }
+        doctor.getVisitingDayLinks().retainAll(days);
+        doctor.getVisitingDayLinks().addAll(days);
+    }
+
+
+    private static List<String> splitList(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .toList();
+    }
+
+
     private void validateDoctorForCreation(Doctor doctor) {
         if (doctor == null) {
             throw new IllegalArgumentException("Doctor cannot be null");
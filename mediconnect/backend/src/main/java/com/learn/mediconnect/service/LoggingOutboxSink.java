@@ -0,0 +1,23 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Default outbox sink: writes each event to the application log (payloads hold ids and states only), so the outbox
+// drains even before a real consumer is wired up. Turn it off with outbox.sink.logging.enabled=false once another
+// OutboxSink bean takes over.
+@Component
+@ConditionalOnProperty(name = "outbox.sink.logging.enabled", havingValue = "true", matchIfMissing = true)
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingOutboxSink.class);
+
+    @Override
+    public void publish(OutboxEvent event) {
+        log.info("Outbox event {} {} {} {} {}", event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload());
+    }
+}
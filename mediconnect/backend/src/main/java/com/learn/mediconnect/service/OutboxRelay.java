@@ -0,0 +1,117 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.entity.OutboxEvent;
+import com.learn.mediconnect.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+// Drains the outbox in the background and hands each event to every OutboxSink.
+// Each batch is claimed for outbox.claim-lease in a short SKIP LOCKED transaction, so several instances can relay
+// at once without taking the same rows, and the sinks run outside any transaction.
+// Events are roughly in commit order; strict ordering only holds with a single relaying instance.
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration claimLease;
+    private final Duration parkedRetention;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<OutboxSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${outbox.batch-size:100}") int batchSize,
+                       @Value("${outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${outbox.claim-lease:PT5M}") Duration claimLease,
+                       @Value("${outbox.parked-retention:P14D}") Duration parkedRetention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.claimLease = claimLease;
+        this.parkedRetention = parkedRetention;
+    }
+
+    // Keeps taking batches while they come back full and fully delivered.
+    // Without any sink there is nothing to relay (OutboxService then records nothing either).
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:PT1S}", initialDelayString = "${outbox.poll-interval:PT1S}")
+    public void poll() {
+        if (sinks.isEmpty()) {
+            return;
+        }
+        BatchResult result;
+        do {
+            result = relayBatch();
+        } while (result.delivered() == batchSize);
+    }
+
+    // Claims one batch, publishes it with no transaction or row lock held, then deletes the delivered events and
+    // records the failures (which releases their claim). If the relay dies before that, the claim runs out and a
+    // later pass delivers the batch again.
+    public BatchResult relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(maxAttempts, now, Limit.of(batchSize));
+            batch.forEach(event -> event.claim(now.plus(claimLease)));
+            return batch;
+        });
+        if (events.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        List<Long> delivered = new ArrayList<>(events.size());
+        Map<Long, String> failed = new HashMap<>();
+        for (OutboxEvent event : events) {
+            try {
+                sinks.forEach(sink -> sink.publish(event));
+                delivered.add(event.getId());
+            } catch (RuntimeException e) {
+                failed.put(event.getId(), e.toString());
+                log.warn("Outbox event {} failed (attempt {} of {})", event.getId(), event.getAttempts() + 1, maxAttempts, e);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.deleteAllByIdInBatch(delivered);
+            outboxEventRepository.findAllById(failed.keySet())
+                    .forEach(event -> event.recordFailure(failed.get(event.getId())));
+        });
+        return new BatchResult(delivered.size(), failed.size());
+    }
+
+    // Parked events stay for outbox.parked-retention so they can be inspected (last_error) or re-queued by
+    // resetting attempts; after that they are deleted so the table cannot grow without bound
+    @Scheduled(fixedDelayString = "${outbox.purge-interval:PT1H}", initialDelayString = "${outbox.purge-interval:PT1H}")
+    public int purgeParked() {
+        Integer purged = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteParkedBefore(maxAttempts, Instant.now().minus(parkedRetention)));
+        if (purged != null && purged > 0) {
+            log.warn("Deleted {} outbox events that failed {} times and are older than {}", purged, maxAttempts, parkedRetention);
+        }
+        return purged != null ? purged : 0;
+    }
+
+    public record BatchResult(int delivered, int failed) {}
+}
@@ -0,0 +1,81 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.entity.Appointment;
+import com.learn.mediconnect.entity.OutboxEvent;
+import com.learn.mediconnect.entity.OutboxEvent.AggregateType;
+import com.learn.mediconnect.entity.OutboxEvent.EventType;
+import com.learn.mediconnect.entity.Prescription;
+import com.learn.mediconnect.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+// Records appointment and prescription state changes in the outbox table.
+// Must join the caller's transaction so the event is committed (or rolled back) together with the change.
+// Nothing is recorded while no OutboxSink is deployed, since nothing would ever drain the rows.
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final boolean enabled;
+
+    @Autowired
+    public OutboxService(OutboxEventRepository outboxEventRepository, List<OutboxSink> sinks) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.enabled = !sinks.isEmpty();
+    }
+
+    public void appointmentChanged(Appointment appointment, EventType eventType) {
+        if (enabled) {
+            outboxEventRepository.save(toEvent(appointment, eventType));
+        }
+    }
+
+    public void appointmentsChanged(List<Appointment> appointments, EventType eventType) {
+        if (enabled) {
+            outboxEventRepository.saveAll(appointments.stream().map(appointment -> toEvent(appointment, eventType)).toList());
+        }
+    }
+
+    public void prescriptionChanged(Prescription prescription, EventType eventType) {
+        if (enabled) {
+            outboxEventRepository.save(toEvent(prescription, eventType));
+        }
+    }
+
+    public void prescriptionsChanged(List<Prescription> prescriptions, EventType eventType) {
+        if (enabled) {
+            outboxEventRepository.saveAll(prescriptions.stream().map(prescription -> toEvent(prescription, eventType)).toList());
+        }
+    }
+
+    // Payloads carry ids and state only, never names or clinical text
+    private static OutboxEvent toEvent(Appointment appointment, EventType eventType) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("appointmentId", appointment.getId());
+        payload.put("doctorId", appointment.getDoctor().getId());
+        payload.put("patientId", appointment.getPatient().getId());
+        payload.put("visitingDate", String.valueOf(appointment.getVisitingDate()));
+        payload.put("visitingSerialNumber", appointment.getVisitingSerialNumber());
+        payload.put("status", String.valueOf(appointment.getStatus()));
+        return new OutboxEvent(AggregateType.APPOINTMENT, appointment.getId(), eventType, payload);
+    }
+
+    private static OutboxEvent toEvent(Prescription prescription, EventType eventType) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("prescriptionId", prescription.getId());
+        payload.put("doctorId", prescription.getDoctor().getId());
+        payload.put("patientId", prescription.getPatient().getId());
+        payload.put("prescriptionDate", String.valueOf(prescription.getPrescriptionDate()));
+        payload.put("followUpDate", prescription.getFollowUpDate() != null ? prescription.getFollowUpDate().toString() : null);
+        payload.put("status", String.valueOf(prescription.getStatus()));
+        return new OutboxEvent(AggregateType.PRESCRIPTION, prescription.getId(), eventType, payload);
+    }
+}
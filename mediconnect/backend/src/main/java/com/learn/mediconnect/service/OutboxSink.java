@@ -0,0 +1,12 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.entity.OutboxEvent;
+
+// Destination for outbox events (notifications, analytics, ...); every OutboxSink bean receives every event.
+// Called outside any transaction. Delivery is at-least-once: an event is retried, to all sinks, when any sink
+// throws, when the relay fails to delete it afterwards, or when a batch takes longer than outbox.claim-lease and
+// another relay pass takes it over, so sinks should de-duplicate on the event id.
+public interface OutboxSink {
+
+    void publish(OutboxEvent event);
+}
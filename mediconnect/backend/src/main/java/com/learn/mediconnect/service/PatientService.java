@@ -3,6 +3,7 @@ package com.learn.mediconnect.service;
 import com.learn.mediconnect.entity.Patient;
 import com.learn.mediconnect.repository.PatientRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,20 +15,25 @@ import java.util.List;
 public class PatientService {
 
     private final PatientRepository patientRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public PatientService(PatientRepository patientRepository) {
+    public PatientService(PatientRepository patientRepository, ApplicationEventPublisher eventPublisher) {
         this.patientRepository = patientRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public Patient createPatient(Patient patient) {
         validatePatientForCreation(patient);
+        // Ids are assigned from patients_id_seq
+        patient.setId(null);
         return patientRepository.save(patient);
     }
 
     public Patient updatePatient(Long id, Patient updatedPatient) {
         Patient existingPatient = getPatientById(id);
         validatePatientForUpdate(existingPatient, updatedPatient);
+        int sessionVersion = existingPatient.getSessionVersion();
         
         // Update fields only if they are provided (not null)
         if (updatedPatient.getName() != null && !updatedPatient.getName().trim().isEmpty()) {
@@ -39,8 +45,11 @@ public class PatientService {
         if (updatedPatient.getPhone() != null && !updatedPatient.getPhone().trim().isEmpty()) {
             existingPatient.setPhone(updatedPatient.getPhone());
         }
-        if (updatedPatient.getUsername() != null && !updatedPatient.getUsername().trim().isEmpty()) {
+        if (updatedPatient.getUsername() != null && !updatedPatient.getUsername().trim().isEmpty()
+                && !updatedPatient.getUsername().equals(existingPatient.getUsername())) {
             existingPatient.setUsername(updatedPatient.getUsername());
+            // Tokens issued for the old username are refused for writes from now on
+            existingPatient.setSessionVersion(existingPatient.getSessionVersion() + 1);
         }
         if (updatedPatient.getPic() != null && !updatedPatient.getPic().trim().isEmpty()) {
             existingPatient.setPic(updatedPatient.getPic());
@@ -56,11 +65,17 @@ public class PatientService {
         }
         
         // Only update password if provided
-        if (updatedPatient.getPassword() != null && !updatedPatient.getPassword().trim().isEmpty()) {
+        if (updatedPatient.getPassword() != null && !updatedPatient.getPassword().trim().isEmpty()
+                && !updatedPatient.getPassword().equals(existingPatient.getPassword())) {
             existingPatient.setPassword(updatedPatient.getPassword());
+            existingPatient.setSessionVersion(existingPatient.getSessionVersion() + 1);
         }
         
-        return patientRepository.save(existingPatient);
+        Patient saved = patientRepository.save(existingPatient);
+        if (saved.getSessionVersion() != sessionVersion) {
+            eventPublisher.publishEvent(new SessionVersionCache.Changed("patient", id));
+        }
+        return saved;
     }
 
 
@@ -82,6 +97,7 @@ public class PatientService {
             throw new IllegalArgumentException("Patient not found with ID: " + id);
         }
         patientRepository.deleteById(id);
+        eventPublisher.publishEvent(new SessionVersionCache.Changed("patient", id));
     }
 
 
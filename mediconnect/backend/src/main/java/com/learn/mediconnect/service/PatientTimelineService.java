@@ -0,0 +1,73 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.config.PageSizeLimits;
+import com.learn.mediconnect.dto.CursorPage;
+import com.learn.mediconnect.dto.TimelineEntry;
+import com.learn.mediconnect.repository.PatientRepository;
+import com.learn.mediconnect.repository.PatientRepository.TimelineRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+
+// A patient's appointments and prescriptions merged newest first, one keyset page per query
+@Service
+public class PatientTimelineService {
+
+    // Above every stored date, so the first page's key sorts after all rows whatever the type and id
+    private static final LocalDate FIRST_PAGE_DATE = LocalDate.of(9999, 12, 31);
+
+    private final PatientRepository patientRepository;
+    private final ReferenceValidator referenceValidator;
+    private final PageSizeLimits pageSizeLimits;
+
+    @Autowired
+    public PatientTimelineService(PatientRepository patientRepository,
+                                  ReferenceValidator referenceValidator,
+                                  PageSizeLimits pageSizeLimits) {
+        this.patientRepository = patientRepository;
+        this.referenceValidator = referenceValidator;
+        this.pageSizeLimits = pageSizeLimits;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TimelineEntry> getTimeline(Long patientId, String cursor, Integer size) {
+        int pageSize = pageSizeLimits.resolve(size);
+        TimelineKey after = decode(cursor);
+        List<TimelineEntry> rows = referenceValidator.listForPatient(patientId,
+                () -> patientRepository.findTimelinePage(patientId, after.date(), after.type(), after.id(), pageSize + 1)
+                        .stream()
+                        .map(PatientTimelineService::toEntry)
+                        .toList());
+        return CursorPage.ofKey(rows, pageSize, entry -> entry.date() + "," + entry.type() + "," + entry.id());
+    }
+
+    private static TimelineEntry toEntry(TimelineRow row) {
+        return new TimelineEntry(row.getEntryType(), row.getId(), row.getEntryDate(), row.getDoctorId(),
+                row.getDoctorName(), row.getStatus(), row.getDescription(), row.getVisitingSerialNumber(),
+                row.getFollowUpDate());
+    }
+
+    private static TimelineKey decode(String cursor) {
+        String key = CursorPage.decodeKeyCursor(cursor);
+        if (key == null) {
+            return new TimelineKey(FIRST_PAGE_DATE, TimelineEntry.PRESCRIPTION, Long.MAX_VALUE);
+        }
+        String[] parts = key.split(",");
+        if (parts.length == 3
+                && (parts[1].equals(TimelineEntry.APPOINTMENT) || parts[1].equals(TimelineEntry.PRESCRIPTION))) {
+            try {
+                return new TimelineKey(LocalDate.parse(parts[0]), parts[1], Long.parseLong(parts[2]));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                // falls through to the error below
+            }
+        }
+        throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+    }
+
+    private record TimelineKey(LocalDate date, String type, Long id) {}
+}
@@ -1,45 +1,100 @@
 package com.learn.mediconnect.service;
 
+import com.learn.mediconnect.config.PageSizeLimits;
+import com.learn.mediconnect.dto.CursorPage;
+import com.learn.mediconnect.dto.PrescriptionSummary;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.OutboxEvent.EventType;
+import com.learn.mediconnect.entity.Patient;
 import com.learn.mediconnect.entity.Prescription;
 import com.learn.mediconnect.entity.Prescription.PrescriptionStatus;
+import com.learn.mediconnect.repository.DoctorRepository.DoctorAndPatient;
 import com.learn.mediconnect.repository.PrescriptionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 
 @Service
 @Transactional
 public class PrescriptionService {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final PrescriptionRepository prescriptionRepository;
-    private final DoctorService doctorService;
-    private final PatientService patientService;
+    private final ReferenceValidator referenceValidator;
+    private final PageSizeLimits pageSizeLimits;
+    private final OutboxService outboxService;
 
     @Autowired
     public PrescriptionService(PrescriptionRepository prescriptionRepository,
-                             DoctorService doctorService,
-                             PatientService patientService) {
+                             ReferenceValidator referenceValidator,
+                             PageSizeLimits pageSizeLimits,
+                             OutboxService outboxService) {
         this.prescriptionRepository = prescriptionRepository;
-        this.doctorService = doctorService;
-        this.patientService = patientService;
+        this.referenceValidator = referenceValidator;
+        this.pageSizeLimits = pageSizeLimits;
+        this.outboxService = outboxService;
     }
 
 
 
     public Prescription createPrescription(Prescription prescription) {
         validatePrescriptionForCreation(prescription);
-        
+        DoctorAndPatient references = referenceValidator.requireDoctorAndPatient(
+                prescription.getDoctor().getId(), prescription.getPatient().getId());
+        prescription.setDoctor(references.doctor());
+        prescription.setPatient(references.patient());
+        prepareForCreation(prescription);
+        Prescription saved = prescriptionRepository.save(prescription);
+        outboxService.prescriptionChanged(saved, EventType.CREATED);
+        return saved;
+    }
+
+
+    // Creates all prescriptions in one transaction; the inserts are flushed together as JDBC batches
+    public List<Prescription> createPrescriptions(List<Prescription> prescriptions) {
+        if (prescriptions == null || prescriptions.isEmpty()) {
+            throw new IllegalArgumentException("At least one prescription is required");
+        }
+        if (prescriptions.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch can contain at most " + MAX_BATCH_SIZE + " prescriptions");
+        }
+        prescriptions.forEach(this::validatePrescriptionForCreation);
+        Map<Long, Doctor> doctors = referenceValidator.requireDoctors(
+                prescriptions.stream().map(prescription -> prescription.getDoctor().getId()).toList());
+        Map<Long, Patient> patients = referenceValidator.requirePatients(
+                prescriptions.stream().map(prescription -> prescription.getPatient().getId()).toList());
+        for (Prescription prescription : prescriptions) {
+            prescription.setDoctor(doctors.get(prescription.getDoctor().getId()));
+            prescription.setPatient(patients.get(prescription.getPatient().getId()));
+            prepareForCreation(prescription);
+        }
+        List<Prescription> saved = prescriptionRepository.saveAll(prescriptions);
+        outboxService.prescriptionsChanged(saved, EventType.CREATED);
+        return saved;
+    }
+
+
+    private void prepareForCreation(Prescription prescription) {
+        // Ids are assigned from prescriptions_id_seq
+        prescription.setId(null);
+
         // Set prescription date if not provided
         if (prescription.getPrescriptionDate() == null) {
             prescription.setPrescriptionDate(LocalDate.now());
         }
         
         prescription.setStatus(PrescriptionStatus.ACTIVE);
-        return prescriptionRepository.save(prescription);
     }
 
 
@@ -59,62 +114,118 @@ public class PrescriptionService {
         existingPrescription.setFollowUpDate(updatedPrescription.getFollowUpDate());
         existingPrescription.setStatus(updatedPrescription.getStatus());
         
-        return prescriptionRepository.save(existingPrescription);
+        Prescription saved = prescriptionRepository.save(existingPrescription);
+        outboxService.prescriptionChanged(saved, EventType.UPDATED);
+        return saved;
     }
 
 
     @Transactional(readOnly = true)
     public Prescription getPrescriptionById(Long id) {
-        Prescription prescription = prescriptionRepository.findById(id)
+        return prescriptionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Prescription not found with ID: " + id));
-        initializePrescriptionRelationships(prescription);
-        return prescription;
     }
 
 
 
     @Transactional(readOnly = true)
-    public List<Prescription> getAllPrescriptions() {
-        List<Prescription> prescriptions = prescriptionRepository.findAll();
-        return initializePrescriptionRelationships(prescriptions);
+    public CursorPage<PrescriptionSummary> getAllPrescriptions(String cursor, Integer size) {
+        int pageSize = pageSizeLimits.resolve(size);
+        List<PrescriptionSummary> rows = prescriptionRepository.findPageAfter(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, PrescriptionSummary::id);
     }
 
 
-    public void deletePrescription(Long id) {
-        if (!prescriptionRepository.existsById(id)) {
-            throw new IllegalArgumentException("Prescription not found with ID: " + id);
+    // Prescriptions listing the given medicine or test, e.g. for a recall; itemType narrows the search to one list
+    @Transactional(readOnly = true)
+    public CursorPage<PrescriptionSummary> searchByItem(String item, String itemType, Long doctorId,
+                                                        LocalDate from, LocalDate to, String cursor, Integer size) {
+        if (item == null || item.isBlank()) {
+            throw new IllegalArgumentException("Search item is required");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Search start date must not be after end date");
         }
-        prescriptionRepository.deleteById(id);
+        String name = item.trim();
+        int pageSize = pageSizeLimits.resolve(size);
+        long afterId = CursorPage.decodeCursor(cursor);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<PrescriptionSummary> rows = switch (itemType == null ? "any" : itemType.trim().toLowerCase(Locale.ROOT)) {
+            case "any" -> prescriptionRepository.searchAnyItem(name, doctorId, from, to, afterId, limit);
+            case "test" -> prescriptionRepository.searchTests(name, doctorId, from, to, afterId, limit);
+            case "tablet" -> prescriptionRepository.searchTablets(name, doctorId, from, to, afterId, limit);
+            case "capsule" -> prescriptionRepository.searchCapsules(name, doctorId, from, to, afterId, limit);
+            case "vaccine" -> prescriptionRepository.searchVaccines(name, doctorId, from, to, afterId, limit);
+            default -> throw new IllegalArgumentException("Invalid item type: " + itemType
+                    + " (expected test, tablet, capsule or vaccine)");
+        };
+        return CursorPage.of(rows, pageSize, PrescriptionSummary::id);
     }
 
 
+    // Past cases by symptom or advice text within one doctor's or one patient's prescriptions, best match first.
+    // Ranked results are not keyset paged; size caps how many come back.
     @Transactional(readOnly = true)
-    public List<Prescription> getPrescriptionsByPatientId(Long patientId) {
-        // Verify patient exists
-        patientService.getPatientById(patientId);
-        List<Prescription> prescriptions = prescriptionRepository.findByPatientId(patientId);
-        return initializePrescriptionRelationships(prescriptions);
+    public List<PrescriptionSummary> searchByText(String query, Long doctorId, Long patientId, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search text is required");
+        }
+        if (doctorId == null && patientId == null) {
+            throw new IllegalArgumentException("Text search must be scoped to a doctor or a patient");
+        }
+        String text = query.trim();
+        Limit limit = Limit.of(pageSizeLimits.resolve(size));
+        Supplier<List<PrescriptionSummary>> search =
+                () -> prescriptionRepository.searchText(text, doctorId, patientId, limit);
+
+        if (doctorId != null && patientId != null) {
+            return referenceValidator.listForPatientAndDoctor(patientId, doctorId, search);
+        }
+        return doctorId != null
+                ? referenceValidator.listForDoctor(doctorId, search)
+                : referenceValidator.listForPatient(patientId, search);
+    }
+
+
+    // Streams every matching prescription to the consumer without holding the result set in memory
+    @Transactional(readOnly = true)
+    public void exportPrescriptions(LocalDate from, LocalDate to, Consumer<PrescriptionSummary> consumer) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Export start date must not be after end date");
+        }
+        try (Stream<PrescriptionSummary> rows = prescriptionRepository.streamForExport(from, to)) {
+            rows.forEach(consumer);
+        }
+    }
+
+
+    public void deletePrescription(Long id) {
+        Prescription prescription = getPrescriptionById(id);
+        prescriptionRepository.delete(prescription);
+        outboxService.prescriptionChanged(prescription, EventType.DELETED);
+    }
+
+
+    @Transactional(readOnly = true)
+    public List<PrescriptionSummary> getPrescriptionsByPatientId(Long patientId) {
+        return referenceValidator.listForPatient(patientId, () -> prescriptionRepository.findByPatientId(patientId));
     }
 
 
 
     @Transactional(readOnly = true)
-    public List<Prescription> getPrescriptionsByDoctorId(Long doctorId) {
-        // Verify doctor exists
-        doctorService.getDoctorById(doctorId);
-        List<Prescription> prescriptions = prescriptionRepository.findByDoctorId(doctorId);
-        return initializePrescriptionRelationships(prescriptions);
+    public List<PrescriptionSummary> getPrescriptionsByDoctorId(Long doctorId) {
+        return referenceValidator.listForDoctor(doctorId, () -> prescriptionRepository.findByDoctorId(doctorId));
     }
 
 
 
     @Transactional(readOnly = true)
-    public List<Prescription> getPrescriptionsByPatientAndDoctor(Long patientId, Long doctorId) {
-        // Verify patient and doctor exist
-        patientService.getPatientById(patientId);
-        doctorService.getDoctorById(doctorId);
-        List<Prescription> prescriptions = prescriptionRepository.findByPatientIdAndDoctorId(patientId, doctorId);
-        return initializePrescriptionRelationships(prescriptions);
+    public List<PrescriptionSummary> getPrescriptionsByPatientAndDoctor(Long patientId, Long doctorId) {
+        return referenceValidator.listForPatientAndDoctor(patientId, doctorId,
+                () -> prescriptionRepository.findByPatientIdAndDoctorId(patientId, doctorId));
     }
 
 
@@ -136,10 +247,6 @@ public class PrescriptionService {
             throw new IllegalArgumentException("Problem description is required");
         }
         
-        // Verify patient and doctor exist
-        patientService.getPatientById(prescription.getPatient().getId());
-        doctorService.getDoctorById(prescription.getDoctor().getId());
-        
         // Validate prescription date if provided
         if (prescription.getPrescriptionDate() != null && 
             prescription.getPrescriptionDate().isAfter(LocalDate.now())) {
@@ -180,19 +287,4 @@ public class PrescriptionService {
             throw new IllegalArgumentException("Follow-up date must be today or in the future");
         }
     }
-
-    // Helper method to initialize lazy relationships
-    private List<Prescription> initializePrescriptionRelationships(List<Prescription> prescriptions) {
-        for (Prescription prescription : prescriptions) {
-            initializePrescriptionRelationships(prescription);
-        }
-        return prescriptions;
-    }
-
-    // Helper method to initialize lazy relationships for a single prescription
-    private void initializePrescriptionRelationships(Prescription prescription) {
-        // Force initialization of lazy relationships
-        prescription.getDoctor().getName(); // Initialize doctor
-        prescription.getPatient().getName(); // Initialize patient
-    }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.DoctorRepository.DoctorAndPatient;
+import com.learn.mediconnect.repository.PatientRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+
+// Checks the doctor and patient ids a request refers to with as few round trips as possible.
+// Missing ids raise the same "not found" errors as DoctorService and PatientService.
+@Component
+public class ReferenceValidator {
+
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+
+    @Autowired
+    public ReferenceValidator(DoctorRepository doctorRepository, PatientRepository patientRepository) {
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+    }
+
+    // One query for both; a second one only runs to report which id was missing
+    public DoctorAndPatient requireDoctorAndPatient(Long doctorId, Long patientId) {
+        return doctorRepository.findWithPatient(doctorId, patientId).orElseThrow(() -> {
+            requireDoctor(doctorId);
+            return patientNotFound(patientId);
+        });
+    }
+
+    // One query per entity type for a whole batch
+    public Map<Long, Doctor> requireDoctors(Collection<Long> doctorIds) {
+        Set<Long> ids = new HashSet<>(doctorIds);
+        Map<Long, Doctor> doctors = doctorRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Doctor::getId, Function.identity()));
+        ids.stream().filter(id -> !doctors.containsKey(id)).findFirst().ifPresent(id -> {
+            throw doctorNotFound(id);
+        });
+        return doctors;
+    }
+
+    public Map<Long, Patient> requirePatients(Collection<Long> patientIds) {
+        Set<Long> ids = new HashSet<>(patientIds);
+        Map<Long, Patient> patients = patientRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+        ids.stream().filter(id -> !patients.containsKey(id)).findFirst().ifPresent(id -> {
+            throw patientNotFound(id);
+        });
+        return patients;
+    }
+
+    // findById rather than existsById: doctors are in the second-level cache, so a known doctor costs no query
+    public void requireDoctor(Long doctorId) {
+        if (doctorRepository.findById(doctorId).isEmpty()) {
+            throw doctorNotFound(doctorId);
+        }
+    }
+
+    public void requirePatient(Long patientId) {
+        if (!patientRepository.existsById(patientId)) {
+            throw patientNotFound(patientId);
+        }
+    }
+
+    // Runs the list query first; existence is only checked when it comes back empty,
+    // so a doctor with rows costs one round trip instead of two
+    public <T> List<T> listForDoctor(Long doctorId, Supplier<List<T>> query) {
+        List<T> rows = query.get();
+        if (rows.isEmpty()) {
+            requireDoctor(doctorId);
+        }
+        return rows;
+    }
+
+    public <T> List<T> listForPatient(Long patientId, Supplier<List<T>> query) {
+        List<T> rows = query.get();
+        if (rows.isEmpty()) {
+            requirePatient(patientId);
+        }
+        return rows;
+    }
+
+    public <T> List<T> listForPatientAndDoctor(Long patientId, Long doctorId, Supplier<List<T>> query) {
+        List<T> rows = query.get();
+        if (rows.isEmpty()) {
+            requirePatient(patientId);
+            requireDoctor(doctorId);
+        }
+        return rows;
+    }
+
+    private static IllegalArgumentException doctorNotFound(Long id) {
+        return new IllegalArgumentException("Doctor not found with ID: " + id);
+    }
+
+    private static IllegalArgumentException patientNotFound(Long id) {
+        return new IllegalArgumentException("Patient not found with ID: " + id);
+    }
+}
@@ -0,0 +1,123 @@
+package com.learn.mediconnect.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Issues and verifies the signed userSession cookie value.
+// Verification is CPU-only, so no session state is shared between backend instances.
+@Service
+public class SessionTokenService {
+
+    private static final String USER_TYPE_CLAIM = "type";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String SESSION_VERSION_CLAIM = "ver";
+
+    private final long expirationMillis;
+    private final String currentKeyId;
+    private final Map<String, SecretKey> verificationKeys = new LinkedHashMap<>();
+    private final JwtParser parser;
+
+    // jwt.previous-secrets keeps tokens signed with retired secrets valid until they expire
+    public SessionTokenService(@Value("${jwt.secret}") String secret,
+                               @Value("${jwt.expiration}") long expirationMillis,
+                               @Value("${jwt.previous-secrets:}") List<String> previousSecrets) {
+        this.expirationMillis = expirationMillis;
+        this.currentKeyId = keyId(secret);
+        verificationKeys.put(currentKeyId, Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
+        for (String previous : previousSecrets) {
+            if (!previous.isBlank()) {
+                verificationKeys.putIfAbsent(keyId(previous), Keys.hmacShaKeyFor(previous.getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        SecretKey key = verificationKeys.get(header.getKeyId());
+                        if (key == null) {
+                            throw new JwtException("Unknown signing key");
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    public String issueToken(String userType, String username, Long userId, int sessionVersion) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, currentKeyId)
+                .setSubject(username)
+                .claim(USER_TYPE_CLAIM, userType.toLowerCase())
+                .claim(USER_ID_CLAIM, userId)
+                .claim(SESSION_VERSION_CLAIM, sessionVersion)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + expirationMillis))
+                .signWith(verificationKeys.get(currentKeyId))
+                .compact();
+    }
+
+    // Empty when the token is malformed, expired or signed with an unknown key
+    public Optional<Session> parseToken(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            String userType = claims.get(USER_TYPE_CLAIM, String.class);
+            if (userType == null || claims.getSubject() == null) {
+                return Optional.empty();
+            }
+            Number userId = claims.get(USER_ID_CLAIM, Number.class);
+            Number sessionVersion = claims.get(SESSION_VERSION_CLAIM, Number.class);
+            return Optional.of(new Session(userType, claims.getSubject(), userId != null ? userId.longValue() : null,
+                    sessionVersion != null ? sessionVersion.intValue() : 0));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public int getExpirationSeconds() {
+        return (int) (expirationMillis / 1000);
+    }
+
+    private static String keyId(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Identity carried by a verified session token; the authentication principal, so ownership checks can use
+    // the user id instead of the (reusable) username
+    public record Session(String userType, String username, Long userId, int sessionVersion) implements Principal {
+
+        @Override
+        public String getName() {
+            return username;
+        }
+
+        public String getRole() {
+            return "ROLE_" + userType.toUpperCase();
+        }
+    }
+}
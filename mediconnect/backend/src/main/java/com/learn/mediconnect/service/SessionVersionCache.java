@@ -0,0 +1,70 @@
+package com.learn.mediconnect.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Current session_version per doctor / patient, for the revocation check on session tokens.
+// Services publish Changed when a user's version moves or the user is deleted, and the entry is dropped once that
+// write commits; a change made on another instance (or outside the services) shows up within session-version.cache-ttl.
+// Unknown users are never cached, so a freshly created user is not shadowed by an earlier miss.
+// Hit/miss counts are exported as cache.gets{cache="sessionVersions"}.
+@Component
+public class SessionVersionCache {
+
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final Cache<UserKey, Integer> versions;
+
+    @Autowired
+    public SessionVersionCache(DoctorRepository doctorRepository,
+                               PatientRepository patientRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${session-version.cache-ttl}") Duration cacheTtl,
+                               @Value("${session-version.cache-size}") long cacheSize) {
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "sessionVersions");
+    }
+
+    public Optional<Integer> currentVersion(String userType, Long userId) {
+        return Optional.ofNullable(versions.get(new UserKey(userType, userId), this::load));
+    }
+
+    // An invalidation waits for a load of the same key that is already running, so an old version read before the
+    // commit cannot be put back afterwards
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChanged(Changed event) {
+        versions.invalidate(new UserKey(event.userType(), event.userId()));
+    }
+
+    private Integer load(UserKey key) {
+        Optional<Integer> version = switch (key.userType()) {
+            case "doctor" -> doctorRepository.findSessionVersionById(key.userId());
+            case "patient" -> patientRepository.findSessionVersionById(key.userId());
+            default -> Optional.empty();
+        };
+        return version.orElse(null);
+    }
+
+    private record UserKey(String userType, Long userId) {}
+
+    // Published when a doctor's or patient's session_version changes or the user is deleted; userType is
+    // "doctor" or "patient", as in the session token
+    public record Changed(String userType, Long userId) {}
+}
@@ -1,12 +1,17 @@
 package com.learn.mediconnect.service;
 
+import com.learn.mediconnect.entity.Doctor;
 import com.learn.mediconnect.entity.Specialization;
+import com.learn.mediconnect.repository.DoctorRepository;
 import com.learn.mediconnect.repository.SpecializationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -14,10 +19,16 @@ import java.util.List;
 public class SpecializationService {
 
     private final SpecializationRepository specializationRepository;
+    private final DoctorRepository doctorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public SpecializationService(SpecializationRepository specializationRepository) {
+    public SpecializationService(SpecializationRepository specializationRepository,
+                                 DoctorRepository doctorRepository,
+                                 ApplicationEventPublisher eventPublisher) {
         this.specializationRepository = specializationRepository;
+        this.doctorRepository = doctorRepository;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -30,12 +41,16 @@ public class SpecializationService {
     public Specialization updateSpecialization(Long id, Specialization updatedSpecialization) {
         Specialization existingSpecialization = getSpecializationById(id);
         validateSpecializationForUpdate(existingSpecialization, updatedSpecialization);
+        renameInDoctorText(existingSpecialization, updatedSpecialization.getName().trim());
         
         // Update fields
         existingSpecialization.setName(updatedSpecialization.getName());
         existingSpecialization.setDescription(updatedSpecialization.getDescription());
         
-        return specializationRepository.save(existingSpecialization);
+        Specialization saved = specializationRepository.save(existingSpecialization);
+        // A rename moves the linked doctors to the new name in DoctorDirectory
+        eventPublisher.publishEvent(new DoctorDirectory.DirectoryChanged(null));
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -55,6 +70,9 @@ public class SpecializationService {
         if (!specializationRepository.existsById(id)) {
             throw new IllegalArgumentException("Specialization not found with ID: " + id);
         }
+        if (doctorRepository.existsBySpecializationLinksId(id)) {
+            throw new IllegalArgumentException("Specialization is assigned to doctors and cannot be deleted");
+        }
         specializationRepository.deleteById(id);
     }
 
@@ -64,6 +82,21 @@ public class SpecializationService {
         return specializationRepository.existsByName(name);
     }
 
+    // doctors.specializations is what DoctorService re-links from on every doctor update, so the linked doctors'
+    // text has to carry the new name too; otherwise their next save re-creates the old specialization
+    private void renameInDoctorText(Specialization specialization, String newName) {
+        String oldName = specialization.getName().trim();
+        if (oldName.equals(newName)) {
+            return;
+        }
+        for (Doctor doctor : doctorRepository.findBySpecializationLinksId(specialization.getId())) {
+            String renamed = Arrays.stream(doctor.getSpecializations().split(",", -1))
+                    .map(part -> part.trim().equalsIgnoreCase(oldName) ? part.replace(part.trim(), newName) : part)
+                    .collect(Collectors.joining(","));
+            doctor.setSpecializations(renamed);
+        }
+    }
+
     private void validateSpecializationForCreation(Specialization specialization) {
         if (specialization == null) {
             throw new IllegalArgumentException("Specialization cannot be null");
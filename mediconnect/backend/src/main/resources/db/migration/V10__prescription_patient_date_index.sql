@@ -0,0 +1,7 @@
+-- Patient timeline (PatientRepository.findTimelinePage) reads a patient's prescriptions newest first;
+-- idx_prescriptions_patient_doctor cannot return them in date order, so every page would sort the whole history.
+-- Appointments are already served in date order by idx_appointments_patient_date (V9).
+-- Dropped first so a retry after a failed concurrent build replaces the INVALID index (see V9).
+DROP INDEX CONCURRENTLY IF EXISTS idx_prescriptions_patient_date;
+CREATE INDEX CONCURRENTLY idx_prescriptions_patient_date
+    ON prescriptions (patient_id, prescription_date);
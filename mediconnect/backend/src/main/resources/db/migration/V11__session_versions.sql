@@ -0,0 +1,4 @@
+-- Session token revocation: tokens carry the user's session_version, and a write is only accepted while the
+-- token's version still matches the row (bumped on username and password changes; a deleted row matches nothing)
+ALTER TABLE doctors ADD COLUMN IF NOT EXISTS session_version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE patients ADD COLUMN IF NOT EXISTS session_version INTEGER NOT NULL DEFAULT 0;
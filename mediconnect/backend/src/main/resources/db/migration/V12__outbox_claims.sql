@@ -0,0 +1,3 @@
+-- Lease on an outbox event while a relay instance hands it to the sinks outside any transaction; another
+-- instance may take the event over once the lease has run out
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP WITH TIME ZONE;
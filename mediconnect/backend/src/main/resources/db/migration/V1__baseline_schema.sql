@@ -0,0 +1,61 @@
+-- Baseline schema (matches the tables Hibernate generated before migrations were introduced)
+-- IF NOT EXISTS keeps this a no-op on databases that were created with ddl-auto=update
+
+CREATE TABLE IF NOT EXISTS doctors (
+    id BIGINT NOT NULL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    phone VARCHAR(255),
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    specializations VARCHAR(255) NOT NULL,
+    visiting_days VARCHAR(255),
+    pic VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS patients (
+    id BIGINT NOT NULL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    phone VARCHAR(255),
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    pic VARCHAR(255),
+    age INTEGER,
+    gender VARCHAR(255),
+    address TEXT
+);
+
+CREATE TABLE IF NOT EXISTS specializations (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    description TEXT
+);
+
+CREATE TABLE IF NOT EXISTS prescriptions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    prescription_date DATE NOT NULL,
+    patient_id BIGINT NOT NULL REFERENCES patients (id),
+    doctor_id BIGINT NOT NULL REFERENCES doctors (id),
+    problem TEXT NOT NULL,
+    tests JSONB,
+    tablets JSONB,
+    capsules JSONB,
+    vaccines JSONB,
+    advice TEXT,
+    other TEXT,
+    follow_up_date DATE,
+    status VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS appointments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    doctor_id BIGINT NOT NULL REFERENCES doctors (id),
+    patient_id BIGINT NOT NULL REFERENCES patients (id),
+    booking_date DATE NOT NULL,
+    visiting_date DATE NOT NULL,
+    visiting_serial_number INTEGER NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    problem_description TEXT,
+    prescription_id BIGINT UNIQUE REFERENCES prescriptions (id)
+);
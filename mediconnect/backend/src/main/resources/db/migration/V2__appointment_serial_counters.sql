@@ -0,0 +1,14 @@
+-- One counter row per (doctor, visiting date); advanced atomically when an appointment is booked
+CREATE TABLE IF NOT EXISTS appointment_serial_counters (
+    doctor_id BIGINT NOT NULL,
+    visiting_date DATE NOT NULL,
+    last_serial INTEGER NOT NULL,
+    PRIMARY KEY (doctor_id, visiting_date)
+);
+
+-- Seed counters from the serials that were already handed out
+INSERT INTO appointment_serial_counters (doctor_id, visiting_date, last_serial)
+SELECT doctor_id, visiting_date, MAX(visiting_serial_number)
+FROM appointments
+GROUP BY doctor_id, visiting_date
+ON CONFLICT (doctor_id, visiting_date) DO NOTHING;
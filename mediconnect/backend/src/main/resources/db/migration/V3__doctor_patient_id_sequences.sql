@@ -0,0 +1,7 @@
+-- Doctor and patient ids come from sequences (Hibernate pooled-lo, blocks of 50)
+CREATE SEQUENCE IF NOT EXISTS doctors_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS patients_id_seq INCREMENT BY 50;
+
+-- Continue after the ids that were assigned by hand
+SELECT setval('doctors_id_seq', COALESCE((SELECT MAX(id) FROM doctors), 0) + 1, false);
+SELECT setval('patients_id_seq', COALESCE((SELECT MAX(id) FROM patients), 0) + 1, false);
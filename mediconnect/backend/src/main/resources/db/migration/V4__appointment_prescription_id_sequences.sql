@@ -0,0 +1,14 @@
+-- Appointment and prescription ids move from identity columns to pooled sequences (blocks of 50)
+-- so Hibernate can batch their inserts
+ALTER TABLE appointments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE prescriptions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS appointments_id_seq;
+CREATE SEQUENCE IF NOT EXISTS prescriptions_id_seq;
+
+-- A serial-style sequence left behind by older schemas is reused with the new increment
+ALTER SEQUENCE appointments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE prescriptions_id_seq INCREMENT BY 50;
+
+SELECT setval('appointments_id_seq', COALESCE((SELECT MAX(id) FROM appointments), 0) + 1, false);
+SELECT setval('prescriptions_id_seq', COALESCE((SELECT MAX(id) FROM prescriptions), 0) + 1, false);
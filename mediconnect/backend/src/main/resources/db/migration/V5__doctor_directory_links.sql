@@ -0,0 +1,40 @@
+-- Normalized doctor specializations and visiting days (mirrors of doctors.specializations / visiting_days)
+CREATE TABLE IF NOT EXISTS doctor_specializations (
+    doctor_id BIGINT NOT NULL REFERENCES doctors (id) ON DELETE CASCADE,
+    specialization_id BIGINT NOT NULL REFERENCES specializations (id),
+    PRIMARY KEY (doctor_id, specialization_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_doctor_specializations_specialization
+    ON doctor_specializations (specialization_id, doctor_id);
+
+CREATE TABLE IF NOT EXISTS doctor_visiting_days (
+    doctor_id BIGINT NOT NULL REFERENCES doctors (id) ON DELETE CASCADE,
+    day_of_week VARCHAR(16) NOT NULL,
+    PRIMARY KEY (doctor_id, day_of_week)
+);
+
+CREATE INDEX IF NOT EXISTS idx_doctor_visiting_days_day
+    ON doctor_visiting_days (day_of_week, doctor_id);
+
+-- Specialization names used by doctors that have no row yet (matched case-insensitively)
+INSERT INTO specializations (name)
+SELECT DISTINCT ON (LOWER(BTRIM(part))) BTRIM(part)
+FROM doctors d CROSS JOIN LATERAL UNNEST(STRING_TO_ARRAY(d.specializations, ',')) AS part
+WHERE BTRIM(part) <> ''
+  AND NOT EXISTS (SELECT 1 FROM specializations s WHERE LOWER(s.name) = LOWER(BTRIM(part)))
+ORDER BY LOWER(BTRIM(part)), BTRIM(part);
+
+INSERT INTO doctor_specializations (doctor_id, specialization_id)
+SELECT d.id, MIN(s.id)
+FROM doctors d CROSS JOIN LATERAL UNNEST(STRING_TO_ARRAY(d.specializations, ',')) AS part
+JOIN specializations s ON LOWER(s.name) = LOWER(BTRIM(part))
+GROUP BY d.id, LOWER(BTRIM(part))
+ON CONFLICT DO NOTHING;
+
+-- Only full English day names are linked; anything else stays in the free-text column
+INSERT INTO doctor_visiting_days (doctor_id, day_of_week)
+SELECT DISTINCT d.id, UPPER(BTRIM(part))
+FROM doctors d CROSS JOIN LATERAL UNNEST(STRING_TO_ARRAY(d.visiting_days, ',')) AS part
+WHERE UPPER(BTRIM(part)) IN ('MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY', 'SUNDAY')
+ON CONFLICT DO NOTHING;
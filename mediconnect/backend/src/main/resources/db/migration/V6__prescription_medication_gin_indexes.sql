@@ -0,0 +1,6 @@
+-- Containment search over the prescription item lists (jsonb @> '["<name>"]').
+-- jsonb_path_ops indexes are smaller than the default jsonb_ops and only support @>, which is all the search uses.
+CREATE INDEX IF NOT EXISTS idx_prescriptions_tests_gin ON prescriptions USING GIN (tests jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS idx_prescriptions_tablets_gin ON prescriptions USING GIN (tablets jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS idx_prescriptions_capsules_gin ON prescriptions USING GIN (capsules jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS idx_prescriptions_vaccines_gin ON prescriptions USING GIN (vaccines jsonb_path_ops);
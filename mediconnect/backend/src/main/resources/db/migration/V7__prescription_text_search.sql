@@ -0,0 +1,10 @@
+-- Full-text search over the free-text prescription fields.
+-- Weighted so a match in the problem ranks above one in the advice, which ranks above one in other notes.
+ALTER TABLE prescriptions
+    ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(problem, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(advice, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(other, '')), 'C')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_prescriptions_search_vector ON prescriptions USING GIN (search_vector);
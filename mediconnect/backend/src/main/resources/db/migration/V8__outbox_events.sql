@@ -0,0 +1,14 @@
+-- Transactional outbox: appointment and prescription state changes, written in the same transaction as the
+-- change itself and drained by OutboxRelay. Rows are deleted once every sink has accepted them.
+CREATE SEQUENCE IF NOT EXISTS outbox_events_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT NOT NULL PRIMARY KEY,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT
+);
@@ -0,0 +1,31 @@
+-- Composite indexes for the appointment and prescription list queries (see AppointmentRepository / PrescriptionRepository).
+-- Built CONCURRENTLY so the tables stay writable meanwhile; Flyway runs such a script outside a transaction
+-- (and needs spring.flyway.postgresql.transactional-lock=false, see application.properties).
+-- A failed concurrent build leaves an INVALID index behind that IF NOT EXISTS would silently keep, so each index is
+-- dropped first: a no-op on the first run, and a clean rebuild when the migration is retried after a failure.
+
+-- Doctor's day queue (WHERE doctor AND date ORDER BY serial), doctor's upcoming list (doctor AND date >= ORDER BY date),
+-- all of a doctor's appointments, and the MAX(serial) seed of a new serial counter
+DROP INDEX CONCURRENTLY IF EXISTS idx_appointments_doctor_date_serial;
+CREATE INDEX CONCURRENTLY idx_appointments_doctor_date_serial
+    ON appointments (doctor_id, visiting_date, visiting_serial_number);
+
+-- Patient's upcoming list and all of a patient's appointments (including findByPatientIdAndStatus)
+DROP INDEX CONCURRENTLY IF EXISTS idx_appointments_patient_date;
+CREATE INDEX CONCURRENTLY idx_appointments_patient_date
+    ON appointments (patient_id, visiting_date);
+
+-- A doctor's appointments in one status without walking every date of that doctor
+DROP INDEX CONCURRENTLY IF EXISTS idx_appointments_doctor_status;
+CREATE INDEX CONCURRENTLY idx_appointments_doctor_status
+    ON appointments (doctor_id, status);
+
+-- A patient's prescriptions, optionally from one doctor (including findByPatientIdAndStatus)
+DROP INDEX CONCURRENTLY IF EXISTS idx_prescriptions_patient_doctor;
+CREATE INDEX CONCURRENTLY idx_prescriptions_patient_doctor
+    ON prescriptions (patient_id, doctor_id);
+
+-- A doctor's prescriptions, optionally within a date range (including findByDoctorIdAndStatus)
+DROP INDEX CONCURRENTLY IF EXISTS idx_prescriptions_doctor_date;
+CREATE INDEX CONCURRENTLY idx_prescriptions_doctor_date
+    ON prescriptions (doctor_id, prescription_date);
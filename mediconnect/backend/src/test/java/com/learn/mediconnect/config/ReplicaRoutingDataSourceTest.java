@@ -0,0 +1,196 @@
+package com.learn.mediconnect.config;
+
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.repository.PatientRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two H2 databases stand in for the primary and its replica. The replica gets a snapshot of the primary taken
+// before each test's extra write, so which database served a read shows in the patient count it returns.
+@SpringBootTest(properties = {
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "datasource.replica.username=sa",
+        "datasource.replica.lag-check-interval=PT1H",
+        "datasource.replica.lag-query=SELECT lag_seconds FROM replica_status"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingDataSourceTest {
+
+    private static final AtomicLong NAMES = new AtomicLong();
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate replica;
+    private long snapshotCount;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        savePatient();
+        Path snapshot = Files.createTempFile("replica-snapshot", ".sql");
+        try {
+            new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + snapshot + "'");
+            replica = new JdbcTemplate(replicaDataSource);
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + snapshot + "'");
+        } finally {
+            Files.deleteIfExists(snapshot);
+        }
+        replica.execute("CREATE TABLE replica_status (lag_seconds DOUBLE PRECISION)");
+        replica.update("INSERT INTO replica_status VALUES (0)");
+        snapshotCount = patientRepository.count();
+
+        // Committed on the primary only, as if not yet replayed on the replica
+        savePatient();
+        replicaLagMonitor.check();
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionsAreServedByTheReplica() {
+        double before = routed("replica", "read-only");
+
+        assertThat(countReadOnly()).isEqualTo(snapshotCount);
+        assertThat(routed("replica", "read-only")).isEqualTo(before + 1);
+    }
+
+    @Test
+    void writesAndPinnedReadsGoToThePrimary() {
+        double writes = routed("primary", "write");
+        savePatient();
+        assertThat(routed("primary", "write")).isGreaterThan(writes);
+
+        double pinned = routed("primary", "pinned");
+        assertThat(ReplicaRoutingDataSource.onPrimary(this::countReadOnly)).isEqualTo(snapshotCount + 2);
+        assertThat(routed("primary", "pinned")).isEqualTo(pinned + 1);
+    }
+
+    @Test
+    void userWhoJustWroteReadsFromThePrimary() {
+        signIn("replica-writer");
+        savePatient();
+        double before = routed("primary", "read-your-writes");
+        assertThat(countReadOnly()).isEqualTo(snapshotCount + 2);
+        assertThat(routed("primary", "read-your-writes")).isEqualTo(before + 1);
+
+        // Other users have not written anything, so the replica is good enough for them
+        signIn("replica-reader");
+        assertThat(countReadOnly()).isEqualTo(snapshotCount);
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinReads() {
+        signIn("replica-rollback");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            savePatient();
+            status.setRollbackOnly();
+        });
+
+        assertThat(countReadOnly()).isEqualTo(snapshotCount);
+    }
+
+    @Test
+    void recentWriteCookieCarriesReadYourWritesToOtherInstances() {
+        signIn("replica-cookie-writer");
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), writeResponse));
+        savePatient();
+        Cookie recentWrite = writeResponse.getCookie(ReplicaRoutingDataSource.RECENT_WRITE_COOKIE);
+        assertThat(recentWrite).isNotNull();
+        assertThat(recentWrite.getMaxAge()).isPositive();
+
+        // Another instance has no entry for this user; the cookie alone keeps the read on the primary
+        signIn("replica-cookie-reader");
+        MockHttpServletRequest nextRequest = new MockHttpServletRequest();
+        nextRequest.setCookies(recentWrite);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(nextRequest));
+        assertThat(countReadOnly()).isEqualTo(snapshotCount + 2);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(countReadOnly()).isEqualTo(snapshotCount);
+    }
+
+    @Test
+    void laggingOrUnreachableReplicaFallsBackToThePrimary() {
+        replica.update("UPDATE replica_status SET lag_seconds = 30");
+        replicaLagMonitor.check();
+        assertThat(replicaLagMonitor.isAvailable()).isTrue();
+        assertThat(meterRegistry.get("datasource.replica.lag").gauge().value()).isEqualTo(30);
+        double lagging = routed("primary", "replica-lag");
+        assertThat(countReadOnly()).isEqualTo(snapshotCount + 1);
+        assertThat(routed("primary", "replica-lag")).isEqualTo(lagging + 1);
+
+        replica.execute("DROP TABLE replica_status");
+        replicaLagMonitor.check();
+        assertThat(replicaLagMonitor.isAvailable()).isFalse();
+        double unavailable = routed("primary", "replica-unavailable");
+        assertThat(countReadOnly()).isEqualTo(snapshotCount + 1);
+        assertThat(routed("primary", "replica-unavailable")).isEqualTo(unavailable + 1);
+    }
+
+    private long countReadOnly() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> patientRepository.count());
+    }
+
+    private void savePatient() {
+        long n = NAMES.incrementAndGet();
+        patientRepository.save(new Patient(null, "Replica Patient " + n, "replica-patient" + n + "@test.com",
+                "replica-patient" + n, "secret"));
+    }
+
+    private double routed(String route, String reason) {
+        return meterRegistry.get("datasource.routing").tags("route", route, "reason", reason).counter().count();
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, AuthorityUtils.createAuthorityList("ROLE_PATIENT")));
+    }
+}
@@ -0,0 +1,194 @@
+package com.learn.mediconnect.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.mediconnect.dto.AppointmentDTO;
+import com.learn.mediconnect.dto.PrescriptionDTO;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.entity.Prescription;
+import com.learn.mediconnect.repository.AppointmentRepository;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import com.learn.mediconnect.repository.PrescriptionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class BatchCreateTest {
+
+    private static final AtomicLong NAMES = new AtomicLong();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Doctor firstDoctor;
+    private Doctor secondDoctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        firstDoctor = saveDoctor();
+        secondDoctor = saveDoctor();
+        long n = NAMES.incrementAndGet();
+        patient = patientRepository.save(new Patient(null, "Batch Patient " + n, "batch-patient" + n + "@test.com",
+                "batch-patient" + n, "secret"));
+    }
+
+    @Test
+    void prescriptionBatchIsInsertedWithBatchedStatements() throws Exception {
+        List<PrescriptionDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            PrescriptionDTO dto = new PrescriptionDTO();
+            dto.setDoctorId(firstDoctor.getId());
+            dto.setPatientId(patient.getId());
+            dto.setProblem("Problem " + i);
+            dto.setTablets(List.of("Paracetamol 500mg"));
+            batch.add(dto);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        JsonNode created = postBatch("/api/prescriptions/batch", batch);
+
+        assertThat(created.size()).isEqualTo(60);
+        assertThat(statistics.getEntityStatistics(Prescription.class.getName()).getInsertCount()).isEqualTo(60);
+        // One statement per row before; now lookups, a couple of sequence calls and a few insert batches
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(15);
+    }
+
+    @Test
+    void appointmentBatchNumbersSerialsPerDoctorAndDate() throws Exception {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        LocalDate nextWeek = LocalDate.now().plusDays(7);
+        List<AppointmentDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            batch.add(appointment(firstDoctor, tomorrow));
+            batch.add(appointment(secondDoctor, tomorrow));
+            batch.add(appointment(firstDoctor, nextWeek));
+        }
+
+        JsonNode created = postBatch("/api/appointments/batch", batch);
+
+        Map<String, List<Integer>> serials = new HashMap<>();
+        created.forEach(row -> serials.computeIfAbsent(row.get("doctorId").asText() + "/" + row.get("visitingDate").asText(),
+                key -> new ArrayList<>()).add(row.get("visitingSerialNumber").asInt()));
+        assertThat(serials).hasSize(3);
+        serials.values().forEach(group -> assertThat(group).containsExactly(1, 2, 3, 4));
+    }
+
+    @Test
+    void batchWithUnknownDoctorCreatesNothing() throws Exception {
+        long before = appointmentRepository.count();
+        AppointmentDTO unknown = appointment(firstDoctor, LocalDate.now().plusDays(1));
+        unknown.setDoctorId(-1L);
+
+        mockMvc.perform(post("/api/appointments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(appointment(firstDoctor, LocalDate.now().plusDays(1)), unknown))))
+                .andExpect(status().is4xxClientError());
+
+        assertThat(appointmentRepository.count()).isEqualTo(before);
+    }
+
+    @Test
+    void batchWithAnInvalidElementIsRejectedBeforeAnythingIsCreated() throws Exception {
+        long appointmentsBefore = appointmentRepository.count();
+        AppointmentDTO missingDoctor = appointment(firstDoctor, LocalDate.now().plusDays(1));
+        missingDoctor.setDoctorId(null);
+
+        mockMvc.perform(post("/api/appointments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(appointment(firstDoctor, LocalDate.now().plusDays(1)), missingDoctor))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details['[1].doctorId']").value("Doctor ID is required"));
+        assertThat(appointmentRepository.count()).isEqualTo(appointmentsBefore);
+
+        long prescriptionsBefore = prescriptionRepository.count();
+        PrescriptionDTO valid = prescription();
+        PrescriptionDTO missingPatient = prescription();
+        missingPatient.setPatientId(null);
+
+        mockMvc.perform(post("/api/prescriptions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valid, missingPatient))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details['[1].patientId']").value("Patient ID is required"));
+        assertThat(prescriptionRepository.count()).isEqualTo(prescriptionsBefore);
+    }
+
+    private Doctor saveDoctor() {
+        long n = NAMES.incrementAndGet();
+        return doctorRepository.save(new Doctor(null, "Dr. Batch " + n, "batch-doctor" + n + "@test.com",
+                "batch-doctor" + n, "secret", "Cardiology"));
+    }
+
+    private AppointmentDTO appointment(Doctor doctor, LocalDate visitingDate) {
+        AppointmentDTO dto = new AppointmentDTO();
+        dto.setDoctorId(doctor.getId());
+        dto.setPatientId(patient.getId());
+        dto.setVisitingDate(visitingDate);
+        dto.setProblemDescription("Checkup");
+        return dto;
+    }
+
+    private PrescriptionDTO prescription() {
+        PrescriptionDTO dto = new PrescriptionDTO();
+        dto.setDoctorId(firstDoctor.getId());
+        dto.setPatientId(patient.getId());
+        dto.setProblem("Checkup");
+        return dto;
+    }
+
+    private JsonNode postBatch(String url, Object batch) throws Exception {
+        String body = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,257 @@
+package com.learn.mediconnect.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Concurrent patients going through login -> book -> list -> cancel against the real HTTP stack and the embedded
+// database in PostgreSQL mode. Reports throughput and p50/p95/p99 per endpoint, then checks the booking invariants
+// (no duplicate serial per doctor and date, counters never behind the highest serial handed out).
+// Run with: mvn -Ploadtest test [-Dloadtest.users=200 -Dloadtest.iterations=10 -Dloadtest.doctors=10]
+// The report is also written to target/loadtest-report.json for the CI stage to archive and compare.
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        // Surface pool exhaustion as failed requests instead of letting them queue for the default 30s
+        "spring.datasource.hikari.connection-timeout=5000"
+})
+@ActiveProfiles("test")
+class BookingFlowLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingFlowLoadTest.class);
+    private static final int USERS = Integer.getInteger("loadtest.users", 100);
+    private static final int ITERATIONS = Integer.getInteger("loadtest.iterations", 5);
+    private static final int DOCTORS = Integer.getInteger("loadtest.doctors", 10);
+    private static final int VISITING_DAYS = 3;
+    private static final Path REPORT = Path.of("target", "loadtest-report.json");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    @Test
+    void bookingFlowHoldsUpUnderConcurrency() throws Exception {
+        List<Long> doctorIds = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            doctorIds.add(doctorRepository.save(new Doctor(null, "Dr. Load " + i, "load-doctor" + i + "@test.com",
+                    "load-doctor" + i, "secret", "Cardiology")).getId());
+        }
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            Patient patient = patientRepository.save(new Patient(null, "Load Patient " + i, "load-patient" + i + "@test.com",
+                    "load-patient" + i, "secret"));
+            usernames.add(patient.getUsername());
+        }
+
+        long start = System.nanoTime();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (String username : usernames) {
+                running.add(users.submit(() -> {
+                    runUser(username, doctorIds);
+                    return null;
+                }));
+            }
+            for (Future<?> user : running) {
+                user.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        List<Map<String, Object>> duplicateSerials = jdbcTemplate.queryForList("""
+                SELECT doctor_id, visiting_date, visiting_serial_number, COUNT(*) AS bookings
+                FROM appointments
+                GROUP BY doctor_id, visiting_date, visiting_serial_number
+                HAVING COUNT(*) > 1""");
+        List<Map<String, Object>> countersBehind = jdbcTemplate.queryForList("""
+                SELECT c.doctor_id, c.visiting_date, c.last_serial, MAX(a.visiting_serial_number) AS highest_serial
+                FROM appointment_serial_counters c
+                JOIN appointments a ON a.doctor_id = c.doctor_id AND a.visiting_date = c.visiting_date
+                GROUP BY c.doctor_id, c.visiting_date, c.last_serial
+                HAVING MAX(a.visiting_serial_number) > c.last_serial""");
+
+        Map<String, Object> report = report(seconds, duplicateSerials, countersBehind);
+        Files.createDirectories(REPORT.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+        log.info("Booking flow load test ({} users x {} iterations, {} doctors): {} req/s over {} s",
+                USERS, ITERATIONS, DOCTORS, report.get("requestsPerSecond"), report.get("seconds"));
+        endpoints.forEach((name, endpoint) -> log.info("  {}", endpoint.summary(name)));
+
+        assertThat(duplicateSerials).as("duplicate serials per doctor and date").isEmpty();
+        assertThat(countersBehind).as("serial counters behind the highest serial").isEmpty();
+        assertThat(endpoints.values()).allSatisfy(endpoint ->
+                assertThat(endpoint.errors.get()).as("failed requests").isZero());
+    }
+
+    private void runUser(String username, List<Long> doctorIds) throws Exception {
+        HttpResponse<String> login = send("login", HttpRequest.newBuilder(uri("/api/auth/patient"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + username + "\",\"password\":\"secret\"}")));
+        if (login == null) {
+            return;
+        }
+        String cookie = login.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+        long patientId = objectMapper.readTree(login.body()).get("userId").asLong();
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long doctorId = doctorIds.get(random.nextInt(doctorIds.size()));
+            LocalDate visitingDate = LocalDate.now().plusDays(1 + random.nextInt(VISITING_DAYS));
+            HttpResponse<String> booked = send("book", HttpRequest.newBuilder(uri("/api/appointments"))
+                    .header("Cookie", cookie)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"doctorId\":" + doctorId + ",\"patientId\":" + patientId
+                            + ",\"visitingDate\":\"" + visitingDate + "\"}")));
+
+            send("list", HttpRequest.newBuilder(uri("/api/appointments/patient/" + patientId))
+                    .header("Cookie", cookie)
+                    .GET());
+
+            // Cancel every other booking so the queues keep a mix of scheduled and canceled serials
+            if (booked != null && i % 2 == 1) {
+                JsonNode appointment = objectMapper.readTree(booked.body());
+                send("cancel", HttpRequest.newBuilder(uri("/api/appointments/" + appointment.get("id").asLong() + "/cancel"))
+                        .header("Cookie", cookie)
+                        .PUT(HttpRequest.BodyPublishers.noBody()));
+            }
+        }
+    }
+
+    // Null when the request failed, so the flow skips the steps that depend on it
+    private HttpResponse<String> send(String name, HttpRequest.Builder request) {
+        Endpoint endpoint = endpoints.computeIfAbsent(name, key -> new Endpoint());
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            endpoint.record(System.nanoTime() - start);
+            if (response.statusCode() >= 400) {
+                endpoint.fail("HTTP " + response.statusCode());
+                return null;
+            }
+            return response;
+        } catch (Exception e) {
+            endpoint.record(System.nanoTime() - start);
+            endpoint.fail(e.getClass().getSimpleName());
+            return null;
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private Map<String, Object> report(double seconds, List<Map<String, Object>> duplicateSerials,
+                                       List<Map<String, Object>> countersBehind) {
+        long requests = endpoints.values().stream().mapToLong(Endpoint::count).sum();
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+        for (String name : List.of("login", "book", "list", "cancel")) {
+            Endpoint endpoint = endpoints.get(name);
+            if (endpoint != null) {
+                perEndpoint.put(name, endpoint.toMap(seconds));
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", USERS);
+        report.put("iterations", ITERATIONS);
+        report.put("doctors", DOCTORS);
+        report.put("seconds", Math.round(seconds * 100) / 100.0);
+        report.put("requests", requests);
+        report.put("requestsPerSecond", Math.round(requests / seconds));
+        report.put("endpoints", perEndpoint);
+        report.put("duplicateSerials", duplicateSerials);
+        report.put("countersBehindSerials", countersBehind);
+        return report;
+    }
+
+    private static final class Endpoint {
+
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicInteger errors = new AtomicInteger();
+        private final Map<String, AtomicInteger> errorKinds = new ConcurrentHashMap<>();
+
+        synchronized void record(long nanos) {
+            latencies.add(nanos);
+        }
+
+        void fail(String kind) {
+            errors.incrementAndGet();
+            errorKinds.computeIfAbsent(kind, key -> new AtomicInteger()).incrementAndGet();
+        }
+
+        synchronized long count() {
+            return latencies.size();
+        }
+
+        synchronized double percentileMillis(double percentile) {
+            List<Long> sorted = latencies.stream().sorted().toList();
+            int index = Math.min(sorted.size() - 1, (int) Math.ceil(percentile * sorted.size()) - 1);
+            return Math.round(sorted.get(Math.max(0, index)) / 10_000.0) / 100.0;
+        }
+
+        Map<String, Object> toMap(double seconds) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("requests", count());
+            values.put("requestsPerSecond", Math.round(count() / seconds));
+            values.put("p50Millis", percentileMillis(0.50));
+            values.put("p95Millis", percentileMillis(0.95));
+            values.put("p99Millis", percentileMillis(0.99));
+            values.put("errors", errors.get());
+            values.put("errorKinds", Map.copyOf(errorKinds));
+            return values;
+        }
+
+        String summary(String name) {
+            return String.format("%-6s %6d requests, p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, %d errors %s", name, count(),
+                    percentileMillis(0.50), percentileMillis(0.95), percentileMillis(0.99), errors.get(), errorKinds);
+        }
+    }
+}
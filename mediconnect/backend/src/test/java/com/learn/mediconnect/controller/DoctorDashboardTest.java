@@ -0,0 +1,156 @@
+package com.learn.mediconnect.controller;
+
+import com.learn.mediconnect.entity.Appointment;
+import com.learn.mediconnect.entity.Appointment.AppointmentStatus;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.entity.Prescription;
+import com.learn.mediconnect.entity.Prescription.PrescriptionStatus;
+import com.learn.mediconnect.repository.AppointmentRepository;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import com.learn.mediconnect.repository.PrescriptionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "DOCTOR")
+class DoctorDashboardTest {
+
+    private static final AtomicLong NAMES = new AtomicLong();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Doctor doctor;
+    private Patient patient;
+    private LocalDate today;
+    private int serial;
+
+    @BeforeEach
+    void setUp() {
+        long n = NAMES.incrementAndGet();
+        doctor = doctorRepository.save(new Doctor(null, "Dr. Dashboard " + n, "dashboard-doctor" + n + "@test.com",
+                "dashboard-doctor" + n, "secret", "Cardiology"));
+        patient = patientRepository.save(new Patient(null, "Dashboard Patient " + n, "dashboard-patient" + n + "@test.com",
+                "dashboard-patient" + n, "secret"));
+        today = LocalDate.now();
+    }
+
+    @Test
+    void countsPerStatusAndDayComeFromOneQueryAndAreCached() throws Exception {
+        saveAppointment(today, AppointmentStatus.SCHEDULED);
+        saveAppointment(today, AppointmentStatus.SCHEDULED);
+        saveAppointment(today, AppointmentStatus.COMPLETED);
+        saveAppointment(today.plusDays(2), AppointmentStatus.CANCELED);
+        // Outside the window
+        saveAppointment(today.plusDays(3), AppointmentStatus.SCHEDULED);
+        savePrescription(today, PrescriptionStatus.ACTIVE);
+        savePrescription(today.plusDays(1), PrescriptionStatus.COMPLETED);
+
+        // Another doctor's rows on the same days
+        Doctor other = doctorRepository.save(new Doctor(null, "Dr. Other " + NAMES.incrementAndGet(),
+                "dashboard-other" + NAMES.get() + "@test.com", "dashboard-other" + NAMES.get(), "secret", "Cardiology"));
+        Appointment otherAppointment = new Appointment(other, patient, today, today);
+        otherAppointment.setVisitingSerialNumber(1);
+        appointmentRepository.save(otherAppointment);
+        prescriptionRepository.save(new Prescription(patient, other, "Cough", today));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String uri = "/api/doctors/" + doctor.getId() + "/dashboard?from=" + today + "&to=" + today.plusDays(2);
+        mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.doctorId").value(doctor.getId()))
+                .andExpect(jsonPath("$.appointmentsByStatus.SCHEDULED").value(2))
+                .andExpect(jsonPath("$.appointmentsByStatus.COMPLETED").value(1))
+                .andExpect(jsonPath("$.appointmentsByStatus.CANCELED").value(1))
+                .andExpect(jsonPath("$.prescriptionsByStatus.ACTIVE").value(1))
+                .andExpect(jsonPath("$.prescriptionsByStatus.COMPLETED").value(1))
+                .andExpect(jsonPath("$.prescriptionsByStatus.EXPIRED").value(0))
+                .andExpect(jsonPath("$.days.length()").value(3))
+                .andExpect(jsonPath("$.days[0].date").value(today.toString()))
+                .andExpect(jsonPath("$.days[0].appointmentsByStatus.SCHEDULED").value(2))
+                .andExpect(jsonPath("$.days[0].prescriptionsByStatus.ACTIVE").value(1))
+                .andExpect(jsonPath("$.days[1].appointmentsByStatus.SCHEDULED").value(0))
+                .andExpect(jsonPath("$.days[1].prescriptionsByStatus.COMPLETED").value(1))
+                .andExpect(jsonPath("$.days[2].appointmentsByStatus.CANCELED").value(1));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        // Served from the cache until the TTL runs out, even after a new booking
+        saveAppointment(today, AppointmentStatus.SCHEDULED);
+        statistics.clear();
+        mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.appointmentsByStatus.SCHEDULED").value(2));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void defaultWindowIsTheComingWeek() throws Exception {
+        mockMvc.perform(get("/api/doctors/" + doctor.getId() + "/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value(today.toString()))
+                .andExpect(jsonPath("$.to").value(today.plusDays(6).toString()))
+                .andExpect(jsonPath("$.days.length()").value(7))
+                .andExpect(jsonPath("$.appointmentsByStatus.SCHEDULED").value(0));
+    }
+
+    @Test
+    void unknownDoctorAndInvalidWindowsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/doctors/999999/dashboard"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/doctors/" + doctor.getId() + "/dashboard?from=" + today + "&to=" + today.minusDays(1)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/doctors/" + doctor.getId() + "/dashboard?from=" + today + "&to=" + today.plusYears(1)))
+                .andExpect(status().isNotFound());
+    }
+
+    private void saveAppointment(LocalDate visitingDate, AppointmentStatus status) {
+        Appointment appointment = new Appointment(doctor, patient, today, visitingDate);
+        appointment.setStatus(status);
+        appointment.setVisitingSerialNumber(++serial);
+        appointmentRepository.save(appointment);
+    }
+
+    private void savePrescription(LocalDate prescriptionDate, PrescriptionStatus status) {
+        Prescription prescription = new Prescription(patient, doctor, "Fever", prescriptionDate);
+        prescription.setStatus(status);
+        prescriptionRepository.save(prescription);
+    }
+}
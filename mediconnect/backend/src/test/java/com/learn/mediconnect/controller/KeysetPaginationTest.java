@@ -0,0 +1,125 @@
+package com.learn.mediconnect.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.mediconnect.dto.CursorPage;
+import com.learn.mediconnect.entity.Appointment;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.repository.AppointmentRepository;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"pagination.default-size=3", "pagination.max-size=4"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class KeysetPaginationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Test
+    void walkingCursorsVisitsEveryAppointmentOnce() throws Exception {
+        Doctor doctor = doctorRepository.save(new Doctor(null, "Dr. Page", "page@test.com", "page", "secret", "ENT"));
+        Patient patient = patientRepository.save(new Patient(null, "Paged Patient", "paged@test.com", "paged", "secret"));
+        for (int i = 1; i <= 10; i++) {
+            Appointment appointment = new Appointment(doctor, patient, LocalDate.now(), LocalDate.now().plusDays(i));
+            appointment.setVisitingSerialNumber(1);
+            appointmentRepository.save(appointment);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MvcResult result = mockMvc.perform(get("/api/appointments")
+                            .param("size", "100")
+                            .param("cursor", cursor == null ? "" : cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+            // Requested size is clamped to pagination.max-size
+            assertThat(page.size()).isLessThanOrEqualTo(4);
+            page.forEach(row -> seen.add(row.get("id").asLong()));
+            cursor = result.getResponse().getHeader(CursorPage.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertThat(seen).isSorted().doesNotHaveDuplicates().hasSize((int) appointmentRepository.count());
+    }
+
+    @Test
+    void unpagedCallersAreCappedAtDefaultSize() throws Exception {
+        Doctor doctor = doctorRepository.save(new Doctor(null, "Dr. Cap", "cap@test.com", "cap", "secret", "ENT"));
+        Patient patient = patientRepository.save(new Patient(null, "Capped Patient", "capped@test.com", "capped", "secret"));
+        for (int i = 1; i <= 5; i++) {
+            Appointment appointment = new Appointment(doctor, patient, LocalDate.now(), LocalDate.now().plusDays(i));
+            appointment.setVisitingSerialNumber(1);
+            appointmentRepository.save(appointment);
+        }
+
+        MvcResult result = mockMvc.perform(get("/api/appointments")).andExpect(status().isOk()).andReturn();
+
+        assertThat(objectMapper.readTree(result.getResponse().getContentAsString()).size()).isEqualTo(3);
+        assertThat(result.getResponse().getHeader(CursorPage.NEXT_CURSOR_HEADER)).isNotNull();
+    }
+
+    @Test
+    void countsCoverEveryAppointmentNotJustTheFirstPage() throws Exception {
+        Doctor doctor = doctorRepository.save(new Doctor(null, "Dr. Count", "count@test.com", "count", "secret", "ENT"));
+        Patient patient = patientRepository.save(new Patient(null, "Counted Patient", "counted@test.com", "counted", "secret"));
+        for (int i = 1; i <= 5; i++) {
+            Appointment appointment = new Appointment(doctor, patient, LocalDate.now(), LocalDate.now().plusDays(i));
+            appointment.setVisitingSerialNumber(1);
+            if (i == 5) {
+                appointment.setStatus(Appointment.AppointmentStatus.CANCELED);
+            }
+            appointmentRepository.save(appointment);
+        }
+
+        JsonNode counts = objectMapper.readTree(mockMvc.perform(get("/api/appointments/counts"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        long total = 0;
+        for (Appointment.AppointmentStatus status : Appointment.AppointmentStatus.values()) {
+            assertThat(counts.has(status.name())).isTrue();
+            total += counts.get(status.name()).asLong();
+        }
+        assertThat(total).isEqualTo(appointmentRepository.count()).isGreaterThan(3);
+        assertThat(counts.get("CANCELED").asLong()).isPositive();
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/api/prescriptions").param("cursor", "not-a-cursor"))
+                .andExpect(status().is4xxClientError());
+    }
+}
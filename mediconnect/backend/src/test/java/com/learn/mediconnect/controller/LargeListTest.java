@@ -0,0 +1,122 @@
+package com.learn.mediconnect.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.mediconnect.dto.CursorPage;
+import com.learn.mediconnect.entity.Appointment;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.entity.Prescription;
+import com.learn.mediconnect.repository.AppointmentRepository;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import com.learn.mediconnect.repository.PrescriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The calls the doctor, patient and admin list pages make, for a doctor and patient with more rows than one page
+// holds: the pages must show every row, not the first pagination.default-size of them.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class LargeListTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Value("${pagination.default-size}")
+    private int defaultSize;
+
+    private Doctor doctor;
+    private Patient patient;
+    private int rows;
+
+    @BeforeEach
+    void setUp() {
+        String name = "large-" + System.nanoTime();
+        doctor = doctorRepository.save(new Doctor(null, "Dr. Large", name + "@test.com", name, "secret", "ENT"));
+        patient = patientRepository.save(new Patient(null, "Large Patient", name + "-patient@test.com",
+                name + "-patient", "secret"));
+        rows = defaultSize + 10;
+
+        List<Appointment> appointments = new ArrayList<>(rows);
+        List<Prescription> prescriptions = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            Appointment appointment = new Appointment(doctor, patient, LocalDate.now(), LocalDate.now().plusDays(i));
+            appointment.setVisitingSerialNumber(1);
+            appointments.add(appointment);
+            prescriptions.add(new Prescription(patient, doctor, "Large " + i));
+        }
+        appointmentRepository.saveAll(appointments);
+        prescriptionRepository.saveAll(prescriptions);
+    }
+
+    @Test
+    void doctorAndPatientListsReturnEveryRow() throws Exception {
+        assertThat(list("/api/appointments/doctor/" + doctor.getId())).hasSize(rows);
+        assertThat(list("/api/appointments/patient/" + patient.getId())).hasSize(rows);
+        assertThat(list("/api/prescriptions/doctor/" + doctor.getId())).hasSize(rows);
+        assertThat(list("/api/prescriptions/patient/" + patient.getId())).hasSize(rows);
+    }
+
+    // What the admin pages do: follow X-Next-Cursor until it is gone
+    @Test
+    void followingCursorsReachesEveryRow() throws Exception {
+        assertThat(allPages("/api/appointments")).hasSize((int) appointmentRepository.count()).hasSizeGreaterThan(defaultSize);
+        assertThat(allPages("/api/prescriptions")).hasSize((int) prescriptionRepository.count()).hasSizeGreaterThan(defaultSize);
+    }
+
+    private JsonNode list(String path) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private Set<Long> allPages(String path) throws Exception {
+        Set<Long> ids = new HashSet<>();
+        String cursor = null;
+        do {
+            MvcResult result = mockMvc.perform(get(path).param("cursor", cursor == null ? "" : cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            objectMapper.readTree(result.getResponse().getContentAsString())
+                    .forEach(row -> ids.add(row.get("id").asLong()));
+            cursor = result.getResponse().getHeader(CursorPage.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return ids;
+    }
+}
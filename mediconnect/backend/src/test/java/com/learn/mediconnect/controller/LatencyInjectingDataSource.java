@@ -0,0 +1,73 @@
+package com.learn.mediconnect.controller;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+
+// Waits a fixed time before every statement runs, standing in for the round trip to a database server that an
+// in-memory H2 database does not have. The connection stays checked out and the calling thread blocks during the
+// wait, as they would on a real server, so request threads spend their time waiting on I/O rather than on CPU.
+public class LatencyInjectingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final Duration latency;
+
+    public LatencyInjectingDataSource(DataSource target, Duration latency) {
+        super(target);
+        this.latency = latency;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return delayStatements(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return delayStatements(super.getConnection(username, password));
+    }
+
+    private Connection delayStatements(Connection connection) {
+        return proxy(Connection.class, connection, (method, args) -> {
+            Object result = invoke(method, connection, args);
+            // createStatement, prepareStatement and prepareCall
+            if (result instanceof Statement statement && method.getReturnType().isInterface()
+                    && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return proxy(method.getReturnType(), statement, (statementMethod, statementArgs) -> {
+                    if (EXECUTE_METHODS.contains(statementMethod.getName())) {
+                        Thread.sleep(latency);
+                    }
+                    return invoke(statementMethod, statement, statementArgs);
+                });
+            }
+            return result;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(LatencyInjectingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.handle(method, args)));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,183 @@
+package com.learn.mediconnect.controller;
+
+import com.learn.mediconnect.entity.Appointment;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.entity.Prescription;
+import com.learn.mediconnect.repository.AppointmentRepository;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import com.learn.mediconnect.repository.PrescriptionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Each list endpoint must load doctor and patient names with the rows, not one select per row
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class ListEndpointQueryCountTest {
+
+    private static final AtomicLong IDS = new AtomicLong(2000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Doctor> doctors = new ArrayList<>();
+    private final List<Patient> patients = new ArrayList<>();
+    private Appointment appointment;
+    private Prescription prescription;
+    private LocalDate visitingDate;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 4; i++) {
+            long id = IDS.incrementAndGet();
+            doctors.add(doctorRepository.save(new Doctor(null, "Doctor " + id, "qc-doctor" + id + "@test.com",
+                    "qc-doctor" + id, "secret", "Cardiology")));
+            patients.add(patientRepository.save(new Patient(null, "Patient " + id, "qc-patient" + id + "@test.com",
+                    "qc-patient" + id, "secret")));
+        }
+
+        // Every doctor sees every patient, so a lazy load per row would show up as extra statements
+        visitingDate = LocalDate.now().plusDays(1);
+        int serial = 0;
+        for (Doctor doctor : doctors) {
+            for (Patient patient : patients) {
+                Appointment a = new Appointment(doctor, patient, LocalDate.now(), visitingDate, "Checkup");
+                a.setVisitingSerialNumber(++serial);
+                appointment = appointmentRepository.save(a);
+
+                Prescription p = new Prescription(patient, doctor, "Fever");
+                p.setTablets(List.of("Paracetamol 500mg"));
+                prescription = prescriptionRepository.save(p);
+            }
+        }
+    }
+
+    @Test
+    void appointmentEndpointsUseConstantStatements() throws Exception {
+        Long doctorId = doctors.get(0).getId();
+        Long patientId = patients.get(0).getId();
+
+        assertStatements("/api/appointments", 1);
+        assertStatements("/api/appointments/" + appointment.getId(), 1);
+        assertStatements("/api/appointments/doctor/" + doctorId, 1);
+        assertStatements("/api/appointments/patient/" + patientId, 1);
+        assertStatements("/api/appointments/doctor/" + doctorId + "/upcoming", 1);
+        assertStatements("/api/appointments/patient/" + patientId + "/upcoming", 1);
+        assertStatements("/api/appointments/doctor/" + doctorId + "/date/" + visitingDate, 1);
+    }
+
+    @Test
+    void prescriptionEndpointsUseConstantStatements() throws Exception {
+        Long doctorId = doctors.get(0).getId();
+        Long patientId = patients.get(0).getId();
+
+        assertStatements("/api/prescriptions", 1);
+        assertStatements("/api/prescriptions/" + prescription.getId(), 1);
+        assertStatements("/api/prescriptions/doctor/" + doctorId, 1);
+        assertStatements("/api/prescriptions/patient/" + patientId, 1);
+        assertStatements("/api/prescriptions/patient/" + patientId + "/doctor/" + doctorId, 1);
+    }
+
+    @Test
+    void bookingLoadsDoctorAndPatientTogether() throws Exception {
+        String body = "{\"doctorId\":" + doctors.get(1).getId() + ",\"patientId\":" + patients.get(1).getId()
+                + ",\"visitingDate\":\"" + visitingDate + "\"}";
+        // Warm up the serial counter and id blocks so only the steady-state statements are counted
+        mockMvc.perform(post("/api/appointments").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(post("/api/appointments").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.doctorName").value(doctors.get(1).getName()))
+                .andExpect(jsonPath("$.patientName").value(patients.get(1).getName()));
+        // Doctor and patient in one select, counter update, serial read, appointment insert, outbox insert
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+    }
+
+    @Test
+    void missingReferencesAreStillReported() throws Exception {
+        Long doctorId = doctors.get(0).getId();
+        String body = "{\"doctorId\":" + doctorId + ",\"patientId\":-1,\"visitingDate\":\"" + visitingDate + "\"}";
+
+        mockMvc.perform(post("/api/appointments").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Patient not found with ID: -1"));
+        mockMvc.perform(get("/api/prescriptions/patient/-1/doctor/" + doctorId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Patient not found with ID: -1"));
+        mockMvc.perform(get("/api/appointments/doctor/-1"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Doctor not found with ID: -1"));
+    }
+
+    @Test
+    void listProjectionsKeepDtoShape() throws Exception {
+        Doctor doctor = doctors.get(0);
+        Patient patient = patients.get(0);
+
+        mockMvc.perform(get("/api/appointments/doctor/" + doctor.getId() + "/date/" + visitingDate))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].doctorName").value(doctor.getName()))
+                .andExpect(jsonPath("$[0].patientId").value(patient.getId()))
+                .andExpect(jsonPath("$[0].visitingSerialNumber").value(1))
+                .andExpect(jsonPath("$[0].status").value("SCHEDULED"));
+
+        mockMvc.perform(get("/api/prescriptions/patient/" + patient.getId() + "/doctor/" + doctor.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].patientName").value(patient.getName()))
+                .andExpect(jsonPath("$[0].tablets[0]").value("Paracetamol 500mg"))
+                .andExpect(jsonPath("$[0].status").value("ACTIVE"));
+    }
+
+    private void assertStatements(String url, long expected) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements for GET %s", url)
+                .isEqualTo(expected);
+    }
+}
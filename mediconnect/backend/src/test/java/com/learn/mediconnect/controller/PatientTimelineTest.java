@@ -0,0 +1,169 @@
+package com.learn.mediconnect.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.mediconnect.dto.CursorPage;
+import com.learn.mediconnect.entity.Appointment;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.entity.Prescription;
+import com.learn.mediconnect.repository.AppointmentRepository;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import com.learn.mediconnect.repository.PrescriptionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "PATIENT")
+class PatientTimelineTest {
+
+    private static final AtomicLong NAMES = new AtomicLong();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Doctor doctor;
+    private Patient patient;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        long n = NAMES.incrementAndGet();
+        doctor = doctorRepository.save(new Doctor(null, "Dr. Timeline " + n, "timeline-doctor" + n + "@test.com",
+                "timeline-doctor" + n, "secret", "Cardiology"));
+        patient = patientRepository.save(new Patient(null, "Timeline Patient " + n, "timeline-patient" + n + "@test.com",
+                "timeline-patient" + n, "secret"));
+        today = LocalDate.now();
+    }
+
+    @Test
+    void pagesInterleaveAppointmentsAndPrescriptionsNewestFirst() throws Exception {
+        // Several entries share a date so the page boundaries fall inside (date, type) groups
+        List<String> expected = new ArrayList<>();
+        Long older = saveAppointment(today.minusDays(30), "Checkup");
+        Long prescribed = savePrescription(today.minusDays(30), "Fever");
+        Long sameDayFirst = saveAppointment(today.minusDays(2), "Cough");
+        Long sameDaySecond = saveAppointment(today.minusDays(2), "Cough again");
+        Long sameDayPrescription = savePrescription(today.minusDays(2), "Cough");
+        Long upcoming = saveAppointment(today.plusDays(5), "Follow-up");
+        expected.add("APPOINTMENT:" + upcoming);
+        expected.add("PRESCRIPTION:" + sameDayPrescription);
+        expected.add("APPOINTMENT:" + sameDaySecond);
+        expected.add("APPOINTMENT:" + sameDayFirst);
+        expected.add("PRESCRIPTION:" + prescribed);
+        expected.add("APPOINTMENT:" + older);
+
+        // Someone else's history stays out of this timeline
+        Patient other = patientRepository.save(new Patient(null, "Other Patient " + NAMES.incrementAndGet(),
+                "timeline-other" + NAMES.get() + "@test.com", "timeline-other" + NAMES.get(), "secret"));
+        Appointment otherAppointment = new Appointment(doctor, other, today, today.minusDays(2), "Other");
+        otherAppointment.setVisitingSerialNumber(99);
+        appointmentRepository.save(otherAppointment);
+        prescriptionRepository.save(new Prescription(other, doctor, "Other", today.minusDays(2)));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            statistics.clear();
+            MvcResult result = mockMvc.perform(get("/api/patients/" + patient.getId() + "/timeline")
+                            .param("size", "2")
+                            .param("cursor", cursor == null ? "" : cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+            assertThat(page.size()).isLessThanOrEqualTo(2);
+            page.forEach(entry -> seen.add(entry.get("type").asText() + ":" + entry.get("id").asLong()));
+            cursor = result.getResponse().getHeader(CursorPage.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void entriesCarryTheLightweightFieldsOfTheirKind() throws Exception {
+        saveAppointment(today.plusDays(1), "Headache");
+        Prescription prescription = new Prescription(patient, doctor, "Migraine", today);
+        prescription.setFollowUpDate(today.plusDays(14));
+        prescriptionRepository.save(prescription);
+
+        mockMvc.perform(get("/api/patients/" + patient.getId() + "/timeline"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].type").value("APPOINTMENT"))
+                .andExpect(jsonPath("$[0].date").value(today.plusDays(1).toString()))
+                .andExpect(jsonPath("$[0].doctorName").value(doctor.getName()))
+                .andExpect(jsonPath("$[0].status").value("SCHEDULED"))
+                .andExpect(jsonPath("$[0].description").value("Headache"))
+                .andExpect(jsonPath("$[0].visitingSerialNumber").isNumber())
+                .andExpect(jsonPath("$[0].followUpDate").doesNotExist())
+                .andExpect(jsonPath("$[1].type").value("PRESCRIPTION"))
+                .andExpect(jsonPath("$[1].status").value("ACTIVE"))
+                .andExpect(jsonPath("$[1].description").value("Migraine"))
+                .andExpect(jsonPath("$[1].followUpDate").value(today.plusDays(14).toString()))
+                .andExpect(jsonPath("$[1].visitingSerialNumber").doesNotExist());
+    }
+
+    @Test
+    void unknownPatientAndMalformedCursorsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/patients/999999/timeline"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/patients/" + patient.getId() + "/timeline").param("cursor", "not-a-cursor"))
+                .andExpect(status().is4xxClientError());
+        // A well-formed id cursor from the other list endpoints does not fit this ordering
+        mockMvc.perform(get("/api/patients/" + patient.getId() + "/timeline").param("cursor", "aWQ6MTA"))
+                .andExpect(status().is4xxClientError());
+    }
+
+    private Long saveAppointment(LocalDate visitingDate, String problem) {
+        Appointment appointment = new Appointment(doctor, patient, today, visitingDate, problem);
+        appointment.setVisitingSerialNumber((int) NAMES.incrementAndGet());
+        return appointmentRepository.save(appointment).getId();
+    }
+
+    private Long savePrescription(LocalDate prescriptionDate, String problem) {
+        return prescriptionRepository.save(new Prescription(patient, doctor, problem, prescriptionDate)).getId();
+    }
+}
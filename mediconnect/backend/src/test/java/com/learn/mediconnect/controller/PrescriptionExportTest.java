@@ -0,0 +1,127 @@
+package com.learn.mediconnect.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.entity.Prescription;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import com.learn.mediconnect.repository.PrescriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class PrescriptionExportTest {
+
+    private static final LocalDate BASE_DATE = LocalDate.of(1990, 1, 1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @BeforeEach
+    void seedPrescriptions() {
+        if (doctorRepository.existsByUsername("export")) {
+            return;
+        }
+        Doctor doctor = doctorRepository.save(new Doctor(null, "Dr. Export", "export@test.com", "export", "secret", "ENT"));
+        Patient patient = patientRepository.save(new Patient(null, "Exported Patient", "exported@test.com", "exported", "secret"));
+        for (int i = 0; i < 10; i++) {
+            prescriptionRepository.save(new Prescription(patient, doctor, "Problem " + i, BASE_DATE.plusDays(i)));
+        }
+    }
+
+    @Test
+    void exportWritesOnePrescriptionPerLine() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/prescriptions/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn();
+
+        List<JsonNode> rows = readLines(result);
+        assertThat(rows).hasSize((int) prescriptionRepository.count());
+        assertThat(rows).anyMatch(row -> row.get("doctorName").asText().equals("Dr. Export"));
+        assertThat(rows.stream().map(row -> row.get("id").asLong()).toList()).isSorted();
+    }
+
+    @Test
+    void dateRangeIsInclusiveOnBothEnds() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/prescriptions/export")
+                        .param("from", BASE_DATE.plusDays(2).toString())
+                        .param("to", BASE_DATE.plusDays(5).toString()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(readLines(result))
+                .extracting(row -> row.get("prescriptionDate").asText())
+                .containsExactly("1990-01-03", "1990-01-04", "1990-01-05", "1990-01-06");
+    }
+
+    @Test
+    void emptyExportHasAnEmptyBody() throws Exception {
+        mockMvc.perform(get("/api/prescriptions/export")
+                        .param("from", "1900-01-01")
+                        .param("to", "1900-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void everyRecordEndsWithANewline() throws Exception {
+        String body = mockMvc.perform(get("/api/prescriptions/export")
+                        .param("from", BASE_DATE.toString())
+                        .param("to", BASE_DATE.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).endsWith("}\n").doesNotContain("\n\n");
+        assertThat(body.split("\n")).hasSize(2);
+    }
+
+    @Test
+    @WithMockUser(roles = "DOCTOR")
+    void exportIsAdminOnly() throws Exception {
+        mockMvc.perform(get("/api/prescriptions/export")).andExpect(status().isForbidden());
+    }
+
+    private List<JsonNode> readLines(MvcResult result) throws Exception {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            if (!line.isBlank()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,201 @@
+package com.learn.mediconnect.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.mediconnect.dto.CursorPage;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.entity.Prescription;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import com.learn.mediconnect.repository.PrescriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "DOCTOR")
+class PrescriptionSearchTest {
+
+    private static final AtomicLong NAMES = new AtomicLong();
+    private static final LocalDate BASE_DATE = LocalDate.of(1995, 3, 1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    private Doctor doctor;
+    private Doctor otherDoctor;
+    private Patient patient;
+    private String recalled;
+
+    @BeforeEach
+    void setUp() {
+        long n = NAMES.incrementAndGet();
+        doctor = doctorRepository.save(new Doctor(null, "Dr. Search " + n, "search" + n + "@test.com",
+                "search" + n, "secret", "ENT"));
+        otherDoctor = doctorRepository.save(new Doctor(null, "Dr. Other " + n, "search-other" + n + "@test.com",
+                "search-other" + n, "secret", "ENT"));
+        patient = patientRepository.save(new Patient(null, "Search Patient " + n, "search-patient" + n + "@test.com",
+                "search-patient" + n, "secret"));
+        recalled = "Recallitol " + n + "mg";
+    }
+
+    @Test
+    void findsPrescriptionsListingTheItemInAnyList() throws Exception {
+        Prescription tablet = save(doctor, BASE_DATE, p -> p.setTablets(List.of("Paracetamol 500mg", recalled)));
+        Prescription vaccine = save(doctor, BASE_DATE, p -> p.setVaccines(List.of(recalled)));
+        save(doctor, BASE_DATE, p -> p.setTablets(List.of(recalled + " extended")));
+        save(doctor, BASE_DATE, p -> p.setCapsules(List.of("Omeprazole 20mg")));
+
+        assertThat(ids(search(recalled))).containsExactly(tablet.getId(), vaccine.getId());
+        assertThat(ids(search(recalled).param("type", "vaccine"))).containsExactly(vaccine.getId());
+        assertThat(ids(search(recalled).param("type", "capsule"))).isEmpty();
+    }
+
+    @Test
+    void doctorAndDateFiltersNarrowTheResults() throws Exception {
+        Prescription early = save(doctor, BASE_DATE, p -> p.setTests(List.of(recalled)));
+        Prescription late = save(doctor, BASE_DATE.plusDays(10), p -> p.setTests(List.of(recalled)));
+        Prescription other = save(otherDoctor, BASE_DATE, p -> p.setTests(List.of(recalled)));
+
+        assertThat(ids(search(recalled).param("doctorId", doctor.getId().toString())))
+                .containsExactly(early.getId(), late.getId());
+        assertThat(ids(search(recalled).param("from", BASE_DATE.plusDays(1).toString())))
+                .containsExactly(late.getId());
+        assertThat(ids(search(recalled).param("to", BASE_DATE.toString())))
+                .containsExactly(early.getId(), other.getId());
+    }
+
+    @Test
+    void resultsArePagedByCursor() throws Exception {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(save(doctor, BASE_DATE, p -> p.setCapsules(List.of(recalled))).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = search(recalled).param("size", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+            seen.addAll(ids(result));
+            cursor = result.getResponse().getHeader(CursorPage.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertThat(seen).isEqualTo(expected);
+    }
+
+    @Test
+    void textSearchIsScopedAndRanked() throws Exception {
+        String symptom = "migrainex" + NAMES.incrementAndGet();
+        Prescription once = saveText(doctor, "Headache", "Rest; " + symptom + " may recur");
+        Prescription twice = saveText(doctor, "Recurring " + symptom, "Track each " + symptom + " episode");
+        saveText(otherDoctor, symptom, null);
+        saveText(doctor, "Sprained ankle", "Ice and rest");
+
+        assertThat(ids(textSearch(symptom).param("doctorId", doctor.getId().toString())))
+                .containsExactly(twice.getId(), once.getId());
+        assertThat(ids(textSearch(symptom).param("patientId", patient.getId().toString()))).hasSize(3);
+        assertThat(ids(textSearch(symptom.toUpperCase()).param("doctorId", doctor.getId().toString())
+                .param("size", "1"))).containsExactly(twice.getId());
+    }
+
+    @Test
+    void textSearchNeedsAnExistingScope() throws Exception {
+        mockMvc.perform(textSearch("cough")).andExpect(status().isNotFound());
+        mockMvc.perform(textSearch("cough").param("doctorId", "-1")).andExpect(status().isNotFound());
+        assertThat(ids(textSearch("no-such-symptom").param("doctorId", doctor.getId().toString()))).isEmpty();
+    }
+
+    @Test
+    void invalidSearchesAreRejected() throws Exception {
+        mockMvc.perform(search(" ")).andExpect(status().isNotFound());
+        mockMvc.perform(search(recalled).param("type", "syrup")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void blankTextSearchIsABadRequest() throws Exception {
+        saveText(doctor, "Headache", "Rest");
+
+        mockMvc.perform(textSearch("").param("doctorId", doctor.getId().toString()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(textSearch("   ").param("doctorId", doctor.getId().toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details.q").value("must not be blank"));
+    }
+
+    @Test
+    @WithMockUser(roles = "PATIENT")
+    void patientsCannotSearchAcrossPrescriptions() throws Exception {
+        mockMvc.perform(search(recalled)).andExpect(status().isForbidden());
+        mockMvc.perform(textSearch("cough").param("patientId", patient.getId().toString()))
+                .andExpect(status().isForbidden());
+    }
+
+    private Prescription save(Doctor prescriber, LocalDate date, Consumer<Prescription> items) {
+        Prescription prescription = new Prescription(patient, prescriber, "Search", date);
+        items.accept(prescription);
+        return prescriptionRepository.save(prescription);
+    }
+
+    private Prescription saveText(Doctor prescriber, String problem, String advice) {
+        Prescription prescription = new Prescription(patient, prescriber, problem, BASE_DATE);
+        prescription.setAdvice(advice);
+        return prescriptionRepository.save(prescription);
+    }
+
+    private static MockHttpServletRequestBuilder textSearch(String query) {
+        return get("/api/prescriptions/search/text").param("q", query);
+    }
+
+    private static MockHttpServletRequestBuilder search(String item) {
+        return get("/api/prescriptions/search").param("item", item);
+    }
+
+    private List<Long> ids(MockHttpServletRequestBuilder request) throws Exception {
+        return ids(mockMvc.perform(request).andExpect(status().isOk()).andReturn());
+    }
+
+    private List<Long> ids(MvcResult result) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode row : objectMapper.readTree(result.getResponse().getContentAsString())) {
+            ids.add(row.get("id").asLong());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,193 @@
+package com.learn.mediconnect.controller;
+
+import com.learn.mediconnect.entity.Appointment;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.entity.Prescription;
+import com.learn.mediconnect.repository.AppointmentRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import com.learn.mediconnect.repository.PrescriptionRepository;
+import com.learn.mediconnect.repository.SpecializationRepository;
+import com.learn.mediconnect.service.DoctorService;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// N+1 guard for every GET endpoint: the same request is made against a small and a large seeded data set,
+// and the number of SQL statements must not change. A failure lists the statements of the large run, most
+// repeated first, which is where the per-row query shows up.
+// New GET endpoints belong in the list below; placeholders are filled from the seeded data set.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.learn.mediconnect.controller.RecordingStatementInspector")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class QueryCountScalingTest {
+
+    private static final int SMALL = 2;
+    private static final int LARGE = 12;
+    private static final AtomicLong NAMES = new AtomicLong();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/appointments",
+            "/api/appointments/{appointmentId}",
+            "/api/appointments/doctor/{doctorId}",
+            "/api/appointments/patient/{patientId}",
+            "/api/appointments/doctor/{doctorId}/upcoming",
+            "/api/appointments/patient/{patientId}/upcoming",
+            "/api/appointments/doctor/{doctorId}/date/{date}",
+            "/api/prescriptions",
+            "/api/prescriptions/{prescriptionId}",
+            "/api/prescriptions/doctor/{doctorId}",
+            "/api/prescriptions/patient/{patientId}",
+            "/api/prescriptions/patient/{patientId}/doctor/{doctorId}",
+            "/api/prescriptions/search?item=Paracetamol&doctorId={doctorId}",
+            "/api/prescriptions/search/text?q=fever&doctorId={doctorId}",
+            "/api/prescriptions/export",
+            "/api/doctors",
+            "/api/doctors/{doctorId}",
+            "/api/doctors/{doctorId}/dashboard",
+            "/api/doctors/specialization/{specialization}",
+            "/api/doctors/visiting-day/monday",
+            "/api/doctors/check-email?email={doctorEmail}",
+            "/api/doctors/check-username?username={doctorUsername}",
+            "/api/patients",
+            "/api/patients/{patientId}",
+            "/api/patients/{patientId}/timeline",
+            "/api/patients/check-email?email={patientEmail}",
+            "/api/patients/check-username?username={patientUsername}",
+            "/api/specializations",
+            "/api/specializations/{specializationId}",
+            "/api/specializations/check-name?name={specialization}"
+    })
+    void statementCountDoesNotGrowWithRows(String endpoint) throws Exception {
+        List<String> small = statementsFor(endpoint, seed(SMALL));
+        List<String> large = statementsFor(endpoint, seed(LARGE));
+
+        if (large.size() != small.size()) {
+            fail("%s issued %d statements with %d rows but %d with %d rows:%n%s",
+                    endpoint, small.size(), SMALL, large.size(), LARGE, describe(large));
+        }
+    }
+
+    private List<String> statementsFor(String endpoint, Map<String, Object> values) throws Exception {
+        String uri = endpoint;
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            uri = uri.replace("{" + value.getKey() + "}", value.getValue().toString());
+        }
+
+        List<String> statements;
+        RecordingStatementInspector.start();
+        try {
+            mockMvc.perform(get(uri)).andExpect(status().isOk());
+        } finally {
+            statements = RecordingStatementInspector.stop();
+        }
+        return statements;
+    }
+
+    // One doctor with `rows` patients, one patient with `rows` doctors, and an appointment and a prescription
+    // for each pair, so any per-row lookup of a doctor or patient multiplies with the data set
+    private Map<String, Object> seed(int rows) {
+        String specialization = "Scaling-" + NAMES.incrementAndGet();
+        LocalDate visitingDate = LocalDate.now().plusDays(1);
+        List<Doctor> doctors = new ArrayList<>();
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            long n = NAMES.incrementAndGet();
+            Doctor doctor = new Doctor(null, "Dr. Scaling " + n, "scaling-doctor" + n + "@test.com",
+                    "scaling-doctor" + n, "secret", specialization);
+            doctor.setVisitingDays("Monday");
+            doctors.add(doctorService.createDoctor(doctor));
+            patients.add(patientRepository.save(new Patient(null, "Scaling Patient " + n,
+                    "scaling-patient" + n + "@test.com", "scaling-patient" + n, "secret")));
+        }
+
+        Doctor doctor = doctors.get(0);
+        Patient patient = patients.get(0);
+        Appointment appointment = null;
+        Prescription prescription = null;
+        for (int i = 0; i < rows; i++) {
+            appointment = saveAppointment(doctor, patients.get(i), visitingDate, i + 1);
+            prescription = savePrescription(doctor, patients.get(i));
+            if (i > 0) {
+                saveAppointment(doctors.get(i), patient, visitingDate, 1);
+                savePrescription(doctors.get(i), patient);
+            }
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("doctorId", doctor.getId());
+        values.put("doctorEmail", doctor.getEmail());
+        values.put("doctorUsername", doctor.getUsername());
+        values.put("patientId", patient.getId());
+        values.put("patientEmail", patient.getEmail());
+        values.put("patientUsername", patient.getUsername());
+        values.put("appointmentId", appointment.getId());
+        values.put("prescriptionId", prescription.getId());
+        values.put("date", visitingDate);
+        values.put("specializationId", specializationRepository.findFirstByNameIgnoreCaseOrderByIdAsc(specialization)
+                .orElseThrow().getId());
+        values.put("specialization", specialization);
+        return values;
+    }
+
+    private Appointment saveAppointment(Doctor doctor, Patient patient, LocalDate visitingDate, int serial) {
+        Appointment appointment = new Appointment(doctor, patient, LocalDate.now(), visitingDate, "Checkup");
+        appointment.setVisitingSerialNumber(serial);
+        return appointmentRepository.save(appointment);
+    }
+
+    private Prescription savePrescription(Doctor doctor, Patient patient) {
+        Prescription prescription = new Prescription(patient, doctor, "Fever");
+        prescription.setTablets(List.of("Paracetamol 500mg"));
+        return prescriptionRepository.save(prescription);
+    }
+
+    // Identical statements grouped with their count, most repeated first
+    private static String describe(List<String> statements) {
+        return statements.stream()
+                .collect(Collectors.groupingBy(Function.identity(), LinkedHashMap::new, Collectors.counting()))
+                .entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .map(entry -> String.format("  %3dx %s", entry.getValue(), entry.getKey()))
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.learn.mediconnect.controller;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Captures the SQL Hibernate prepares on the recording thread, so query-count failures can show the statements.
+// Installed with spring.jpa.properties.hibernate.session_factory.statement_inspector; threads that are not
+// recording (scheduled jobs, other tests' requests) pass through untouched.
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    public static void start() {
+        RECORDED.set(new ArrayList<>());
+    }
+
+    public static List<String> stop() {
+        List<String> statements = RECORDED.get();
+        RECORDED.remove();
+        return statements != null ? statements : List.of();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = RECORDED.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
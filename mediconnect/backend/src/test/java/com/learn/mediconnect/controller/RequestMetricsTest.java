@@ -0,0 +1,107 @@
+package com.learn.mediconnect.controller;
+
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.repository.DoctorRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every request counts as slow here, so each one is logged
+@SpringBootTest(properties = {"request-metrics.slow-request-threshold=0s", "metrics.scrape.password=scrape-secret"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class RequestMetricsTest {
+
+    private static final AtomicLong NAMES = new AtomicLong();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void statementCountIsRecordedPerEndpointAndSlowRequestsAreLogged(CapturedOutput output) throws Exception {
+        Doctor doctor = saveDoctor();
+
+        mockMvc.perform(get("/api/appointments/doctor/" + doctor.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/appointments/doctor/" + doctor.getId())).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get("http.server.requests.sql")
+                .tags("method", "GET", "uri", "/api/appointments/doctor/{doctorId}")
+                .summary();
+        assertThat(statements.count()).isEqualTo(2);
+        assertThat(statements.totalAmount()).isEqualTo(2);
+        assertThat(output).contains("Slow request GET /api/appointments/doctor/{doctorId} took")
+                .contains("with 1 SQL statements (status 200)");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void prometheusScrapeCoversLatencyPoolAndCacheMeters() throws Exception {
+        Doctor doctor = saveDoctor();
+        mockMvc.perform(get("/api/doctors/" + doctor.getId())).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("http_server_requests_sql_statements_count{")
+                .contains("hikaricp_connections_acquire_seconds_bucket{")
+                .contains("hikaricp_connections_active{")
+                .contains("hibernate_statements_total{")
+                .contains("hibernate_second_level_cache_requests_total{")
+                .contains("hibernate_second_level_cache_hit_ratio{entityManagerFactory=\"entityManagerFactory\",region=\"doctors\"}");
+    }
+
+    @Test
+    void prometheusScrapesWithItsOwnCredentialOnly() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", basic("prometheus", "scrape-secret")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", basic("prometheus", "wrong")))
+                .andExpect(status().isUnauthorized());
+        // The credential opens the scrape endpoint and nothing else
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", basic("prometheus", "scrape-secret")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/doctors").header("Authorization", basic("prometheus", "scrape-secret")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Doctor saveDoctor() {
+        long n = NAMES.incrementAndGet();
+        return doctorRepository.save(new Doctor(null, "Dr. Metrics " + n, "metrics-doctor" + n + "@test.com",
+                "metrics-doctor" + n, "secret", "Cardiology"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.learn.mediconnect.controller;
+
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.repository.PatientRepository;
+import com.learn.mediconnect.service.AuthorizationService;
+import com.learn.mediconnect.service.SessionTokenService;
+import com.learn.mediconnect.service.SessionTokenService.Session;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Signed session tokens are checked against the user's session_version (and admin tokens against the configured
+// admin username) on every request
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SessionRevocationTest {
+
+    private static final AtomicLong NAMES = new AtomicLong();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Value("${SUPER_ADMIN_USERNAME:admin}")
+    private String adminUsername;
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void passwordChangeRevokesOlderTokens() throws Exception {
+        Patient patient = savePatient();
+        Cookie session = login(patient.getUsername(), "secret");
+
+        mockMvc.perform(get("/api/patients/" + patient.getId()).cookie(session))
+                .andExpect(status().isOk());
+        update(patient.getId(), session, "{\"phone\":\"0100\"}").andExpect(status().isOk());
+        update(patient.getId(), session, "{\"password\":\"changed-secret\"}").andExpect(status().isOk());
+
+        // The token from before the change no longer reads or writes
+        update(patient.getId(), session, "{\"phone\":\"0200\"}").andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/patients/" + patient.getId()).cookie(session))
+                .andExpect(status().isUnauthorized());
+
+        Cookie renewed = login(patient.getUsername(), "changed-secret");
+        update(patient.getId(), renewed, "{\"phone\":\"0300\"}").andExpect(status().isOk());
+    }
+
+    @Test
+    void tokenOfADeletedUserCannotWriteOrClaimAReusedUsername() throws Exception {
+        Patient patient = savePatient();
+        Cookie session = login(patient.getUsername(), "secret");
+        patientRepository.deleteById(patient.getId());
+
+        // Someone registers the freed username; the old token names the same username but not the new id
+        Patient successor = patientRepository.save(new Patient(null, "Successor", "successor" + NAMES.incrementAndGet() + "@test.com",
+                patient.getUsername(), "secret"));
+        update(successor.getId(), session, "{\"phone\":\"0100\"}").andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/patients/" + successor.getId()).cookie(session))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/api/auth/validate-session").cookie(session))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void adminTokenMustNameTheConfiguredAdmin() throws Exception {
+        Cookie current = new Cookie("userSession", sessionTokenService.issueToken("admin", adminUsername, null, 0));
+        Cookie former = new Cookie("userSession", sessionTokenService.issueToken("admin", "former-" + adminUsername, null, 0));
+
+        mockMvc.perform(get("/api/doctors").cookie(current)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/doctors").cookie(former)).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void ownershipIsDecidedOnTheUserId() throws Exception {
+        Patient patient = savePatient();
+        Session session = sessionTokenService.parseToken(login(patient.getUsername(), "secret").getValue()).orElseThrow();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                session, null, AuthorityUtils.createAuthorityList(session.getRole())));
+
+        assertThat(authorizationService.getCurrentUsername()).isEqualTo(patient.getUsername());
+        assertThat(authorizationService.getCurrentUserId()).isEqualTo(patient.getId());
+        assertThat(authorizationService.canAccessPatientProfile(patient.getId())).isTrue();
+        assertThat(authorizationService.canUpdateAppointment(patient.getId())).isTrue();
+        assertThat(authorizationService.canAccessPatientProfile(patient.getId() + 1)).isFalse();
+        assertThat(authorizationService.canAccessDoctorProfile(patient.getId())).isFalse();
+    }
+
+    private Cookie login(String username, String password) throws Exception {
+        Cookie cookie = mockMvc.perform(post("/api/auth/patient")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie("userSession");
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getMaxAge()).isEqualTo(3600);
+        return cookie;
+    }
+
+    private ResultActions update(Long id, Cookie session, String body) throws Exception {
+        return mockMvc.perform(put("/api/patients/" + id)
+                .cookie(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private Patient savePatient() {
+        long n = NAMES.incrementAndGet();
+        return patientRepository.save(new Patient(null, "Revocation Patient " + n, "revocation" + n + "@test.com",
+                "revocation" + n, "secret"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.learn.mediconnect.controller;
+
+import com.learn.mediconnect.MediconnectApplication;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import com.learn.mediconnect.service.SessionTokenService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Booking and listing throughput with Tomcat on platform workers versus virtual threads, same pool size for both.
+// Each mode gets its own application on a random port; clients book an appointment and then list the doctor's appointments.
+// Request threads only differ in how they wait, so each statement is given a round trip to wait on: on H2 a delay of
+// benchmark.db.latency (default 1 ms) is injected before every statement; with benchmark.db.url the application runs
+// against that PostgreSQL database instead (schema from the Flyway migrations, rows kept between runs) and the delay
+// defaults to none. Run with:
+//   mvn test -Dgroups=benchmark -Dsurefire.excludedGroups= -Dtest=VirtualThreadLoadBenchmarkTest [-Dbenchmark.db.latency=PT5MS]
+//       [-Dbenchmark.db.url=jdbc:postgresql://localhost:5432/mediconnect_bench -Dbenchmark.db.username=... -Dbenchmark.db.password=...]
+// (add -DargLine=-Djdk.tracePinnedThreads=short to report any virtual thread pinned while blocking)
+@Tag("benchmark")
+class VirtualThreadLoadBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoadBenchmarkTest.class);
+    private static final int CLIENTS = 400;
+    private static final int ITERATIONS = 10;
+
+    private static final String DB_URL = System.getProperty("benchmark.db.url", "");
+    private static final Duration DB_LATENCY = Duration.parse(
+            System.getProperty("benchmark.db.latency", DB_URL.isEmpty() ? "PT0.001S" : "PT0S"));
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        // Warm up both modes before measuring
+        run(false, 50, 5);
+        run(true, 50, 5);
+
+        Result platform = run(false, CLIENTS, ITERATIONS);
+        Result virtual = run(true, CLIENTS, ITERATIONS);
+        log.info("{}, {} injected per statement", DB_URL.isEmpty() ? "H2" : DB_URL, DB_LATENCY);
+        log.info("Platform threads: {}", platform);
+        log.info("Virtual threads:  {}", virtual);
+        assertThat(platform.failures()).isZero();
+        assertThat(virtual.failures()).isZero();
+    }
+
+    private Result run(boolean virtualThreads, int clients, int iterations) throws Exception {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.jpa.properties.hibernate.generate_statistics=false"));
+        if (!DB_URL.isEmpty()) {
+            args.addAll(List.of(
+                    "--spring.datasource.url=" + DB_URL,
+                    "--spring.datasource.username=" + System.getProperty("benchmark.db.username", "postgres"),
+                    "--spring.datasource.password=" + System.getProperty("benchmark.db.password", ""),
+                    "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                    "--spring.flyway.enabled=true",
+                    "--spring.jpa.hibernate.ddl-auto=validate",
+                    "--spring.jpa.defer-datasource-initialization=false",
+                    "--spring.sql.init.mode=never"));
+        }
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(MediconnectApplication.class);
+        if (!DB_LATENCY.isZero()) {
+            builder.initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof LatencyInjectingDataSource)
+                            ? new LatencyInjectingDataSource(dataSource, DB_LATENCY) : bean;
+                }
+            }));
+        }
+        try (ConfigurableApplicationContext app = builder.run(args.toArray(String[]::new))) {
+            String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            String cookie = "userSession=" + app.getBean(SessionTokenService.class).issueToken("admin", "bench-admin", null, 0);
+            // Unique per run, since a PostgreSQL benchmark database keeps the rows of earlier runs
+            String run = Long.toString(System.nanoTime(), 36);
+            // A doctor per client, so bookings do not queue on one doctor's serial counter row: on H2 that wait
+            // blocks inside the database and pins the carrier thread, which a wait on a PostgreSQL socket does not
+            List<Long> doctorIds = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                doctorIds.add(app.getBean(DoctorRepository.class).save(new Doctor(null, "Dr. Load " + i,
+                        "load-doctor" + i + "-" + run + "@test.com", "load-doctor" + i + "-" + run, "secret", "Cardiology")).getId());
+            }
+            Long patientId = app.getBean(PatientRepository.class).save(new Patient(null, "Load Patient",
+                    "load-patient-" + run + "@test.com", "load-patient-" + run, "secret")).getId();
+            String visitingDate = LocalDate.now().plusDays(1).toString();
+
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            long[] latencies = new long[clients * iterations * 2];
+            AtomicInteger next = new AtomicInteger();
+            AtomicInteger failures = new AtomicInteger();
+
+            long start = System.nanoTime();
+            try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> running = new ArrayList<>();
+                for (int c = 0; c < clients; c++) {
+                    Long doctorId = doctorIds.get(c);
+                    HttpRequest book = HttpRequest.newBuilder(URI.create(baseUrl + "/api/appointments"))
+                            .header("Cookie", cookie)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"doctorId\":" + doctorId + ",\"patientId\":" + patientId
+                                    + ",\"visitingDate\":\"" + visitingDate + "\"}"))
+                            .build();
+                    HttpRequest list = HttpRequest.newBuilder(URI.create(baseUrl + "/api/appointments/doctor/" + doctorId))
+                            .header("Cookie", cookie)
+                            .GET()
+                            .build();
+                    running.add(clientThreads.submit(() -> {
+                        for (int i = 0; i < iterations; i++) {
+                            for (HttpRequest request : List.of(book, list)) {
+                                long sent = System.nanoTime();
+                                try {
+                                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                                    if (status >= 400) {
+                                        failures.incrementAndGet();
+                                    }
+                                } catch (Exception e) {
+                                    failures.incrementAndGet();
+                                }
+                                latencies[next.getAndIncrement()] = System.nanoTime() - sent;
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : running) {
+                    future.get();
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            Arrays.sort(latencies);
+            return new Result(Math.round(latencies.length / seconds),
+                    latencies[latencies.length / 2] / 1_000_000.0,
+                    latencies[(int) (latencies.length * 0.99)] / 1_000_000.0,
+                    failures.get());
+        }
+    }
+
+    private record Result(long requestsPerSecond, double p50Millis, double p99Millis, int failures) {
+
+        @Override
+        public String toString() {
+            return String.format("%d req/s, p50 %.1f ms, p99 %.1f ms, %d failures",
+                    requestsPerSecond, p50Millis, p99Millis, failures);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.learn.mediconnect.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The default build runs on H2 with the schema generated from the entities (the migrations use PostgreSQL-only SQL),
+// so V1..Vn are only exercised here: every migration is applied to a new, empty schema and the application then
+// starts with ddl-auto=validate against the result, which fails on any entity mapping the migrations do not match.
+// The schema is dropped afterwards. Run with:
+//   mvn test -Dtest=PostgresMigrationTest -Dmigration.db.url=jdbc:postgresql://localhost:5432/mediconnect_migrations \
+//       -Dmigration.db.username=... -Dmigration.db.password=...
+@EnabledIfSystemProperty(named = "migration.db.url", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.username=${migration.db.username:postgres}",
+        "spring.datasource.password=${migration.db.password:}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.sql.init.mode=never"
+})
+@ActiveProfiles("test")
+class PostgresMigrationTest {
+
+    private static final String SCHEMA = "migration_check_" + System.currentTimeMillis();
+
+    private static JdbcTemplate schemaOwner;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Flyway creates the schema; the connection's search_path points Hibernate's validation at it
+    @DynamicPropertySource
+    static void schemaProperties(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("migration.db.url");
+        registry.add("spring.datasource.url", () -> url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA);
+        registry.add("spring.flyway.schemas", () -> SCHEMA);
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        if (schemaOwner != null) {
+            schemaOwner.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void everyMigrationAppliesToAnEmptySchemaAndMatchesTheEntities() {
+        schemaOwner = jdbcTemplate;
+
+        // Without the entry Flyway records for creating the schema, which has no version
+        List<MigrationInfo> applied = Arrays.stream(flyway.info().applied())
+                .filter(migration -> migration.getVersion() != null)
+                .toList();
+        assertThat(applied).isNotEmpty();
+        assertThat(applied.get(0).getVersion().getVersion()).isEqualTo("1");
+        assertThat(applied).extracting(MigrationInfo::getState).containsOnly(MigrationState.SUCCESS);
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT current_schema()", String.class)).isEqualTo(SCHEMA);
+    }
+}
@@ -0,0 +1,131 @@
+package com.learn.mediconnect.repository;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// The plan checks against PostgreSQL, with the schema and indexes from the Flyway migrations (PostgreSQL does not
+// index foreign keys by itself, unlike H2). Each statement gets a generic plan, i.e. one for unknown parameter
+// values; a sequential scan or whole-index walk of appointments or prescriptions fails. The seeded rows are kept
+// between runs. Run with:
+//   mvn test -Dtest=PostgresQueryPlanTest -Dplan.db.url=jdbc:postgresql://localhost:5432/mediconnect_plan \
+//       -Dplan.db.username=... -Dplan.db.password=...
+@EnabledIfSystemProperty(named = "plan.db.url", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${plan.db.url}",
+        "spring.datasource.username=${plan.db.username:postgres}",
+        "spring.datasource.password=${plan.db.password:}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.learn.mediconnect.controller.RecordingStatementInspector"
+})
+@ActiveProfiles("test")
+class PostgresQueryPlanTest extends QueryPlanHarness {
+
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (appointments|prescriptions)\\b");
+    private static final Pattern INDEX_SCAN = Pattern.compile(
+            "(?:Index (?:Only )?Scan(?: Backward)? using|Bitmap Index Scan on) (\\S+)");
+    private static final String LEADING_COLUMN = """
+            SELECT t.relname AS table_name, a.attname AS column_name
+            FROM pg_index i
+            JOIN pg_class t ON t.oid = i.indrelid
+            LEFT JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+            WHERE i.indexrelid = ?::regclass
+            """;
+
+    // A sequential scan of either table, or an index scan of one whose Index Cond (EXPLAIN prints it as the first
+    // line under the node) leaves the index's leading column unconstrained, which walks the whole index
+    @Override
+    protected Optional<String> fullScan(String plan) {
+        Matcher seqScan = SEQ_SCAN.matcher(plan);
+        if (seqScan.find()) {
+            return Optional.of(seqScan.group(1));
+        }
+        String[] lines = plan.split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            Matcher indexScan = INDEX_SCAN.matcher(lines[i]);
+            if (!indexScan.find()) {
+                continue;
+            }
+            Map<String, Object> index = jdbcTemplate.queryForMap(LEADING_COLUMN, indexScan.group(1));
+            String table = (String) index.get("table_name");
+            if (!table.equals("appointments") && !table.equals("prescriptions")) {
+                continue;
+            }
+            String condition = i + 1 < lines.length ? lines[i + 1].trim() : "";
+            if (!condition.startsWith("Index Cond:") || !condition.contains("(" + index.get("column_name") + " ")) {
+                return Optional.of(table);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Prepared under its own name and explained with plan_cache_mode=force_generic_plan, so the plan is the one for
+    // unknown parameter values (the NULL arguments only satisfy EXECUTE's arity). With sequential scans, hash joins
+    // and merge joins switched off the planner takes any index that can serve a filter or a join, so a full read
+    // left in the plan means there is no such index, however small the seeded tables are.
+    @Override
+    protected String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            int parameters;
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                parameters = statement.getParameterMetaData().getParameterCount();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET plan_cache_mode = force_generic_plan");
+                statement.execute("SET enable_seqscan = off");
+                statement.execute("SET enable_hashjoin = off");
+                statement.execute("SET enable_mergejoin = off");
+                statement.execute("PREPARE plan_check AS " + numberParameters(sql));
+                try {
+                    StringBuilder plan = new StringBuilder();
+                    String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+                    try (ResultSet rows = statement.executeQuery("EXPLAIN EXECUTE plan_check" + arguments)) {
+                        while (rows.next()) {
+                            plan.append(rows.getString(1)).append(System.lineSeparator());
+                        }
+                    }
+                    return plan.toString();
+                } finally {
+                    statement.execute("DEALLOCATE plan_check");
+                    statement.execute("RESET plan_cache_mode");
+                    statement.execute("RESET enable_seqscan");
+                    statement.execute("RESET enable_hashjoin");
+                    statement.execute("RESET enable_mergejoin");
+                }
+            }
+        });
+    }
+
+    // JDBC ? placeholders to PostgreSQL's $1, $2, ... (string literals left alone)
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        boolean inLiteral = false;
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
@@ -0,0 +1,200 @@
+package com.learn.mediconnect.repository;
+
+import com.learn.mediconnect.controller.RecordingStatementInspector;
+import com.learn.mediconnect.entity.Appointment;
+import com.learn.mediconnect.entity.Appointment.AppointmentStatus;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.entity.Prescription;
+import com.learn.mediconnect.entity.Prescription.PrescriptionStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+// Every appointment and prescription lookup by doctor, patient or date must be answered from an index, not by
+// reading the whole table. Each repository query is run once to capture its SQL, which is then EXPLAINed against
+// a seeded data set; a full scan of appointments or prescriptions fails the test with the plan.
+// The export stream (a deliberate ordered walk of every row) and the jsonb/full-text searches are left out.
+// QueryPlanTest runs this on H2 as a smoke test; PostgresQueryPlanTest is the check that matters for production.
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class QueryPlanHarness {
+
+    private static final int DOCTORS = 20;
+    private static final int PATIENTS = 50;
+    private static final int VISITING_DAYS = 10;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private AppointmentSerialCounterRepository counterRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long doctorId;
+    private Long patientId;
+    private LocalDate today;
+
+    // Plan text of one statement, and the table (appointments or prescriptions) the plan reads in full, if any
+    protected abstract String explain(String sql);
+
+    protected abstract Optional<String> fullScan(String plan);
+
+    // Every doctor sees every patient on each day, so any one doctor or patient is a small slice of both tables.
+    // A database that keeps its data between runs (PostgresQueryPlanTest) is seeded once.
+    @BeforeAll
+    void seed() {
+        today = LocalDate.now();
+        Doctor seededDoctor = doctorRepository.findByUsername("plan-doctor" + DOCTORS / 2);
+        Patient seededPatient = patientRepository.findByUsername("plan-patient" + PATIENTS / 2);
+        if (seededDoctor != null && seededPatient != null) {
+            jdbcTemplate.execute("ANALYZE");
+            doctorId = seededDoctor.getId();
+            patientId = seededPatient.getId();
+            return;
+        }
+        List<Doctor> doctors = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            doctors.add(new Doctor(null, "Dr. Plan " + i, "plan-doctor" + i + "@test.com",
+                    "plan-doctor" + i, "secret", "Cardiology"));
+        }
+        doctors = doctorRepository.saveAll(doctors);
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            patients.add(new Patient(null, "Plan Patient " + i, "plan-patient" + i + "@test.com",
+                    "plan-patient" + i, "secret"));
+        }
+        patients = patientRepository.saveAll(patients);
+
+        List<Appointment> appointments = new ArrayList<>();
+        List<Prescription> prescriptions = new ArrayList<>();
+        for (Doctor doctor : doctors) {
+            for (int day = 0; day < VISITING_DAYS; day++) {
+                LocalDate visitingDate = today.plusDays(day - VISITING_DAYS / 2);
+                for (int p = 0; p < PATIENTS; p++) {
+                    Patient patient = patients.get(p);
+                    Appointment appointment = new Appointment(doctor, patient, visitingDate.minusDays(7), visitingDate);
+                    appointment.setVisitingSerialNumber(p + 1);
+                    // Each visit ends with a prescription, as in real data (appointments.prescription_id is set)
+                    Prescription prescription = new Prescription(patient, doctor, "Fever", visitingDate);
+                    appointment.setPrescription(prescription);
+                    appointments.add(appointment);
+                    prescriptions.add(prescription);
+                }
+            }
+        }
+        prescriptionRepository.saveAll(prescriptions);
+        appointmentRepository.saveAll(appointments);
+        jdbcTemplate.execute("ANALYZE");
+
+        doctorId = doctors.get(DOCTORS / 2).getId();
+        patientId = patients.get(PATIENTS / 2).getId();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "AppointmentRepository.findById",
+            "AppointmentRepository.findByDoctorIdAndStatus",
+            "AppointmentRepository.findByPatientIdAndStatus",
+            "AppointmentRepository.findPageAfter",
+            "AppointmentRepository.findSummariesByDoctorId",
+            "AppointmentRepository.findSummariesByPatientId",
+            "AppointmentRepository.findByDoctorIdAndVisitingDate",
+            "AppointmentRepository.findUpcomingAppointmentsByDoctor",
+            "AppointmentRepository.findUpcomingAppointmentsByPatient",
+            "AppointmentRepository.countForDashboard",
+            "AppointmentSerialCounterRepository.insertCounter",
+            "PatientRepository.findTimelinePage",
+            "PrescriptionRepository.findById",
+            "PrescriptionRepository.findByPatientIdAndStatus",
+            "PrescriptionRepository.findByDoctorIdAndStatus",
+            "PrescriptionRepository.findPageAfter",
+            "PrescriptionRepository.findByPatientId",
+            "PrescriptionRepository.findByDoctorId",
+            "PrescriptionRepository.findByPatientIdAndDoctorId"
+    })
+    void queryIsServedByAnIndex(String query) {
+        List<String> statements = statementsFor(query);
+        assertThat(statements).as("SQL issued by %s", query).isNotEmpty();
+
+        for (String sql : statements) {
+            String plan = explain(sql);
+            fullScan(plan).ifPresent(table -> fail("%s scans all of %s:%n%s", query, table, plan));
+        }
+    }
+
+    // Runs the query inside a transaction that is rolled back, so the counter insert leaves no trace
+    private List<String> statementsFor(String query) {
+        Runnable call = switch (query) {
+            case "AppointmentRepository.findById" -> () -> appointmentRepository.findById(1L);
+            case "AppointmentRepository.findByDoctorIdAndStatus" ->
+                    () -> appointmentRepository.findByDoctorIdAndStatus(doctorId, AppointmentStatus.SCHEDULED);
+            case "AppointmentRepository.findByPatientIdAndStatus" ->
+                    () -> appointmentRepository.findByPatientIdAndStatus(patientId, AppointmentStatus.SCHEDULED);
+            case "AppointmentRepository.findPageAfter" -> () -> appointmentRepository.findPageAfter(0L, Limit.of(21));
+            case "AppointmentRepository.findSummariesByDoctorId" -> () -> appointmentRepository.findSummariesByDoctorId(doctorId);
+            case "AppointmentRepository.findSummariesByPatientId" -> () -> appointmentRepository.findSummariesByPatientId(patientId);
+            case "AppointmentRepository.findByDoctorIdAndVisitingDate" ->
+                    () -> appointmentRepository.findByDoctorIdAndVisitingDate(doctorId, today);
+            case "AppointmentRepository.findUpcomingAppointmentsByDoctor" ->
+                    () -> appointmentRepository.findUpcomingAppointmentsByDoctor(doctorId, today);
+            case "AppointmentRepository.findUpcomingAppointmentsByPatient" ->
+                    () -> appointmentRepository.findUpcomingAppointmentsByPatient(patientId, today);
+            case "AppointmentRepository.countForDashboard" ->
+                    () -> appointmentRepository.countForDashboard(doctorId, today, today.plusDays(6));
+            case "AppointmentSerialCounterRepository.insertCounter" -> () -> counterRepository.insertCounter(doctorId, today, 1);
+            case "PatientRepository.findTimelinePage" ->
+                    () -> patientRepository.findTimelinePage(patientId, today, "APPOINTMENT", Long.MAX_VALUE, 21);
+            case "PrescriptionRepository.findById" -> () -> prescriptionRepository.findById(1L);
+            case "PrescriptionRepository.findByPatientIdAndStatus" ->
+                    () -> prescriptionRepository.findByPatientIdAndStatus(patientId, PrescriptionStatus.ACTIVE);
+            case "PrescriptionRepository.findByDoctorIdAndStatus" ->
+                    () -> prescriptionRepository.findByDoctorIdAndStatus(doctorId, PrescriptionStatus.ACTIVE);
+            case "PrescriptionRepository.findPageAfter" -> () -> prescriptionRepository.findPageAfter(0L, Limit.of(21));
+            case "PrescriptionRepository.findByPatientId" -> () -> prescriptionRepository.findByPatientId(patientId);
+            case "PrescriptionRepository.findByDoctorId" -> () -> prescriptionRepository.findByDoctorId(doctorId);
+            case "PrescriptionRepository.findByPatientIdAndDoctorId" ->
+                    () -> prescriptionRepository.findByPatientIdAndDoctorId(patientId, doctorId);
+            default -> throw new IllegalArgumentException("Unknown query " + query);
+        };
+
+        List<String> statements;
+        RecordingStatementInspector.start();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                call.run();
+                status.setRollbackOnly();
+            });
+        } finally {
+            statements = RecordingStatementInspector.stop();
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,47 @@
+package com.learn.mediconnect.repository;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Smoke run of the plan checks on the in-memory H2 database: catches queries that cannot use any index at all
+// (e.g. a filter on a joined row instead of the foreign key column). H2's planner is not PostgreSQL's, so a pass
+// here says nothing about sequential scans in production; PostgresQueryPlanTest checks those.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.learn.mediconnect.controller.RecordingStatementInspector")
+@ActiveProfiles("test")
+class QueryPlanTest extends QueryPlanHarness {
+
+    private static final Pattern FULL_SCAN = Pattern.compile("(appointments|prescriptions)\\.tableScan");
+
+    @Override
+    protected Optional<String> fullScan(String plan) {
+        Matcher scan = FULL_SCAN.matcher(plan);
+        return scan.find() ? Optional.of(scan.group(1)) : Optional.empty();
+    }
+
+    // Parameters are bound as NULL: H2 picks the index from which columns are compared, not the values
+    @Override
+    protected String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 1; i <= explain.getParameterMetaData().getParameterCount(); i++) {
+                    explain.setObject(i, null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append(System.lineSeparator());
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+}
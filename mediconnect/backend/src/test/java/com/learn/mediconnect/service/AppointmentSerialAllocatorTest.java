@@ -0,0 +1,144 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.dto.AppointmentSummary;
+import com.learn.mediconnect.entity.Appointment;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.repository.AppointmentRepository;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentSerialAllocatorTest {
+
+    private static final AtomicLong IDS = new AtomicLong(1000);
+
+    @Autowired
+    private AppointmentSerialAllocator serialAllocator;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        long id = IDS.incrementAndGet();
+        doctor = doctorRepository.save(new Doctor(null, "Dr. Serial " + id, "doctor" + id + "@test.com",
+                "doctor" + id, "secret", "Cardiology"));
+        patient = patientRepository.save(new Patient(null, "Patient " + id, "patient" + id + "@test.com",
+                "patient" + id, "secret"));
+    }
+
+    @Test
+    void parallelAllocationsAreUniqueAndGapFree() throws Exception {
+        LocalDate visitingDate = LocalDate.now().plusDays(1);
+        int bookings = 200;
+
+        List<Integer> serials = runInParallel(bookings, () ->
+                transactionTemplate.execute(status -> serialAllocator.allocate(doctor.getId(), visitingDate)));
+
+        assertThat(serials).containsExactlyInAnyOrderElementsOf(
+                IntStream.rangeClosed(1, bookings).boxed().toList());
+    }
+
+    @Test
+    void parallelBookingsGetUniqueAndGapFreeSerials() throws Exception {
+        LocalDate visitingDate = LocalDate.now().plusDays(2);
+        int bookings = 100;
+
+        runInParallel(bookings, () -> {
+            Appointment appointment = new Appointment(doctor, patient, null, visitingDate, "Checkup");
+            return appointmentService.createAppointment(appointment).getVisitingSerialNumber();
+        });
+
+        List<Integer> stored = appointmentRepository
+                .findByDoctorIdAndVisitingDate(doctor.getId(), visitingDate)
+                .stream()
+                .map(AppointmentSummary::visitingSerialNumber)
+                .toList();
+        assertThat(stored).containsExactlyElementsOf(IntStream.rangeClosed(1, bookings).boxed().toList());
+    }
+
+    @Test
+    void rolledBackAllocationIsReused() {
+        LocalDate visitingDate = LocalDate.now().plusDays(3);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(serialAllocator.allocate(doctor.getId(), visitingDate)).isEqualTo(1);
+            status.setRollbackOnly();
+        });
+
+        Integer serial = transactionTemplate.execute(status -> serialAllocator.allocate(doctor.getId(), visitingDate));
+        assertThat(serial).isEqualTo(1);
+    }
+
+    @Test
+    void movingTheLastAppointmentReleasesItsSerial() {
+        LocalDate firstDate = LocalDate.now().plusDays(4);
+        LocalDate secondDate = LocalDate.now().plusDays(5);
+
+        Appointment first = appointmentService.createAppointment(new Appointment(doctor, patient, null, firstDate));
+        Appointment second = appointmentService.createAppointment(new Appointment(doctor, patient, null, firstDate));
+        assertThat(second.getVisitingSerialNumber()).isEqualTo(2);
+
+        Appointment move = new Appointment(doctor, patient, null, secondDate);
+        move.setStatus(Appointment.AppointmentStatus.SCHEDULED);
+        Appointment moved = appointmentService.updateAppointment(second.getId(), move);
+        assertThat(moved.getVisitingSerialNumber()).isEqualTo(1);
+
+        // The vacated tail serial on the first date is handed out again
+        Appointment third = appointmentService.createAppointment(new Appointment(doctor, patient, null, firstDate));
+        assertThat(third.getVisitingSerialNumber()).isEqualTo(2);
+        assertThat(first.getVisitingSerialNumber()).isEqualTo(1);
+    }
+
+    private List<Integer> runInParallel(int tasks, Callable<Integer> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                futures.add(executor.submit(task));
+            }
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.dto.PatientDTO;
+import com.learn.mediconnect.entity.Patient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Test
+    void concurrentRegistrationsGetDistinctIds() throws Exception {
+        int registrations = 20;
+        List<Callable<Long>> tasks = IntStream.range(0, registrations)
+                .<Callable<Long>>mapToObj(i -> () -> {
+                    PatientDTO dto = new PatientDTO(null, "Registered " + i, "registered" + i + "@test.com", "registered" + i);
+                    dto.setPassword("secret");
+                    Patient patient = authService.registerPatient(dto);
+                    return patient.getId();
+                })
+                .toList();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (Future<Long> future : executor.invokeAll(tasks)) {
+                ids.add(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(ids).hasSize(registrations).doesNotContainNull().doesNotHaveDuplicates();
+    }
+}
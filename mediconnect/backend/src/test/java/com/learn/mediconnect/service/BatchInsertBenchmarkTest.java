@@ -0,0 +1,223 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.entity.Prescription;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Rows/sec for one createPrescription call per row versus a single createPrescriptions batch, and for batched
+// inserts of the same row mapped with IDENTITY (Hibernate has to run each INSERT on its own to read the id back,
+// so jdbc.batch_size does nothing) versus a pooled SEQUENCE like Prescription's. Runs on H2 here;
+// PostgresBatchInsertBenchmarkTest runs it against PostgreSQL. Run with:
+//   mvn test -Dgroups=benchmark -Dsurefire.excludedGroups= -Dtest=BatchInsertBenchmarkTest
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=false")
+@ActiveProfiles("test")
+class BatchInsertBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchInsertBenchmarkTest.class);
+    private static final int ROWS = 1000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Test
+    void compareRowByRowAndBatchedInserts() {
+        Doctor doctor = saveDoctor();
+        Patient patient = savePatient();
+
+        // Warm up both paths before measuring
+        rowByRow(doctor, patient);
+        batched(doctor, patient);
+
+        double rowByRow = 0;
+        double batched = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            rowByRow += rowByRow(doctor, patient);
+            batched += batched(doctor, patient);
+        }
+        log.info("Prescription inserts: {} rows/sec one per request, {} rows/sec batched",
+                Math.round(rowByRow / ROUNDS), Math.round(batched / ROUNDS));
+        assertThat(batched).isPositive();
+    }
+
+    @Test
+    void compareIdentityAndSequenceIds() {
+        Long doctorId = saveDoctor().getId();
+        Long patientId = savePatient().getId();
+        createBaselineTables();
+        try (SessionFactory sessionFactory = baselineSessionFactory()) {
+            insert(sessionFactory, () -> new IdentityRow(doctorId, patientId));
+            insert(sessionFactory, () -> new SequenceRow(doctorId, patientId));
+
+            double identity = 0;
+            double sequence = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                identity += insert(sessionFactory, () -> new IdentityRow(doctorId, patientId));
+                sequence += insert(sessionFactory, () -> new SequenceRow(doctorId, patientId));
+            }
+            log.info("Batched inserts (jdbc.batch_size={}): {} rows/sec with IDENTITY ids, {} rows/sec with pooled SEQUENCE ids",
+                    batchSize, Math.round(identity / ROUNDS), Math.round(sequence / ROUNDS));
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM bench_identity_rows", Long.class))
+                    .isEqualTo((long) ROWS * (ROUNDS + 1));
+        } finally {
+            dropBaselineTables();
+        }
+    }
+
+    private double rowByRow(Doctor doctor, Patient patient) {
+        List<Prescription> prescriptions = prescriptions(doctor, patient);
+        long start = System.nanoTime();
+        prescriptions.forEach(prescriptionService::createPrescription);
+        return rowsPerSecond(start);
+    }
+
+    private double batched(Doctor doctor, Patient patient) {
+        List<Prescription> prescriptions = prescriptions(doctor, patient);
+        long start = System.nanoTime();
+        prescriptionService.createPrescriptions(prescriptions);
+        return rowsPerSecond(start);
+    }
+
+    // All rows in one transaction, flushed in jdbc.batch_size statements where the id strategy allows it
+    private double insert(SessionFactory sessionFactory, Supplier<BaselineRow> row) {
+        long start = System.nanoTime();
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < ROWS; i++) {
+                session.persist(row.get());
+            }
+        });
+        return rowsPerSecond(start);
+    }
+
+    // Built on the application's pool with its batching settings, but only knows the two baseline rows
+    private SessionFactory baselineSessionFactory() {
+        return new MetadataSources(new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .build())
+                .addResource("benchmark/batch-insert-orm.xml")
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    // Same DDL on H2 (PostgreSQL mode) and PostgreSQL
+    private void createBaselineTables() {
+        dropBaselineTables();
+        jdbcTemplate.execute("CREATE TABLE bench_identity_rows (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "doctor_id BIGINT NOT NULL, patient_id BIGINT NOT NULL, problem VARCHAR(255) NOT NULL, prescription_date DATE NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE bench_sequence_rows (id BIGINT PRIMARY KEY, " +
+                "doctor_id BIGINT NOT NULL, patient_id BIGINT NOT NULL, problem VARCHAR(255) NOT NULL, prescription_date DATE NOT NULL)");
+        jdbcTemplate.execute("CREATE SEQUENCE bench_sequence_rows_seq INCREMENT BY 50");
+    }
+
+    private void dropBaselineTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_identity_rows");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_sequence_rows");
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS bench_sequence_rows_seq");
+    }
+
+    private List<Prescription> prescriptions(Doctor doctor, Patient patient) {
+        List<Prescription> prescriptions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Prescription prescription = new Prescription(patient, doctor, "Benchmark " + i);
+            prescription.setTablets(List.of("Paracetamol 500mg"));
+            prescriptions.add(prescription);
+        }
+        return prescriptions;
+    }
+
+    // Unique per run, since a PostgreSQL benchmark database keeps the rows of earlier runs
+    private Doctor saveDoctor() {
+        String name = "bench-" + System.nanoTime();
+        return doctorRepository.save(new Doctor(null, "Dr. Bench", name + "@test.com", name, "secret", "ENT"));
+    }
+
+    private Patient savePatient() {
+        String name = "bench-patient-" + System.nanoTime();
+        return patientRepository.save(new Patient(null, "Bench Patient", name + "@test.com", name, "secret"));
+    }
+
+    private static double rowsPerSecond(long startNanos) {
+        return ROWS / ((System.nanoTime() - startNanos) / 1_000_000_000.0);
+    }
+
+    // Mapped in benchmark/batch-insert-orm.xml
+    static class BaselineRow {
+        Long doctorId;
+        Long patientId;
+        String problem;
+        LocalDate prescriptionDate;
+
+        BaselineRow() {
+        }
+
+        BaselineRow(Long doctorId, Long patientId) {
+            this.doctorId = doctorId;
+            this.patientId = patientId;
+            this.problem = "Benchmark";
+            this.prescriptionDate = LocalDate.now();
+        }
+    }
+
+    static class IdentityRow extends BaselineRow {
+        Long id;
+
+        IdentityRow() {
+        }
+
+        IdentityRow(Long doctorId, Long patientId) {
+            super(doctorId, patientId);
+        }
+    }
+
+    static class SequenceRow extends BaselineRow {
+        Long id;
+
+        SequenceRow() {
+        }
+
+        SequenceRow(Long doctorId, Long patientId) {
+            super(doctorId, patientId);
+        }
+    }
+}
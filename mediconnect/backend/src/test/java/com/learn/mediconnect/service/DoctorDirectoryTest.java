@@ -0,0 +1,158 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.dto.DoctorSummary;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Specialization;
+import com.learn.mediconnect.repository.SpecializationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DoctorDirectoryTest {
+
+    private static final AtomicLong NAMES = new AtomicLong();
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private SpecializationService specializationService;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void doctorIsFoundUnderEachOfSeveralSpecializations() {
+        String skin = uniqueName("Dermatology");
+        String allergy = uniqueName("Allergy");
+        Doctor doctor = createDoctor(skin + ", " + allergy, "Monday");
+
+        eventually(() -> {
+            assertThat(ids(doctorService.getDoctorsBySpecialization(skin.toUpperCase()))).containsExactly(doctor.getId());
+            assertThat(ids(doctorService.getDoctorsBySpecialization(" " + allergy + " "))).containsExactly(doctor.getId());
+        });
+        assertThat(specializationRepository.findFirstByNameIgnoreCaseOrderByIdAsc(skin)).isPresent();
+
+        // Only what DoctorDTO shows is kept
+        DoctorSummary summary = doctorService.getDoctorsBySpecialization(skin).get(0);
+        assertThat(summary.username()).isEqualTo(doctor.getUsername());
+        assertThat(summary.specializations()).isEqualTo(skin + ", " + allergy);
+        assertThat(DoctorSummary.class.getRecordComponents()).noneMatch(component -> component.getName().equals("password"));
+    }
+
+    @Test
+    void lookupsDoNotHitTheDatabase() {
+        String specialization = uniqueName("Neurology");
+        Doctor doctor = createDoctor(specialization, "Tuesday,Thursday");
+        eventually(() -> assertThat(doctorService.getDoctorsBySpecialization(specialization)).isNotEmpty());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThat(ids(doctorService.getDoctorsBySpecialization(specialization))).containsExactly(doctor.getId());
+        assertThat(ids(doctorService.getDoctorsByVisitingDay("thursday"))).contains(doctor.getId());
+        assertThat(doctorService.getDoctorsByVisitingDay("someday")).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void writesAreReflectedAfterCommit() {
+        String before = uniqueName("Orthopedics");
+        String after = uniqueName("Pediatrics");
+        Doctor doctor = createDoctor(before, "Friday");
+
+        Doctor update = new Doctor();
+        update.setSpecializations(after);
+        update.setVisitingDays("Saturday");
+        doctorService.updateDoctor(doctor.getId(), update);
+
+        eventually(() -> {
+            assertThat(doctorService.getDoctorsBySpecialization(before)).isEmpty();
+            assertThat(ids(doctorService.getDoctorsBySpecialization(after))).containsExactly(doctor.getId());
+            assertThat(ids(doctorService.getDoctorsByVisitingDay("Friday"))).doesNotContain(doctor.getId());
+            assertThat(ids(doctorService.getDoctorsByVisitingDay("Saturday"))).contains(doctor.getId());
+        });
+
+        // Renaming the specialization moves the doctor with it
+        Specialization specialization = specializationRepository.findFirstByNameIgnoreCaseOrderByIdAsc(after).orElseThrow();
+        String renamed = uniqueName("Child Health");
+        specializationService.updateSpecialization(specialization.getId(), new Specialization(renamed));
+        eventually(() -> assertThat(ids(doctorService.getDoctorsBySpecialization(renamed))).containsExactly(doctor.getId()));
+        assertThat(doctorService.getDoctorById(doctor.getId()).getSpecializations()).isEqualTo(renamed);
+
+        // Saving the doctor's own text again keeps the link and does not bring the old name back
+        Doctor resave = new Doctor();
+        resave.setSpecializations(doctorService.getDoctorById(doctor.getId()).getSpecializations());
+        doctorService.updateDoctor(doctor.getId(), resave);
+        assertThat(specializationRepository.findFirstByNameIgnoreCaseOrderByIdAsc(after)).isEmpty();
+        assertThat(specializationRepository.findFirstByNameIgnoreCaseOrderByIdAsc(renamed)).get()
+                .extracting(Specialization::getId).isEqualTo(specialization.getId());
+        assertThatThrownBy(() -> specializationService.deleteSpecialization(specialization.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        doctorService.deleteDoctor(doctor.getId());
+        eventually(() -> assertThat(doctorService.getDoctorsBySpecialization(renamed)).isEmpty());
+    }
+
+    @Test
+    void visitingDaysThatAreNotDayNamesAreKeptButNotLinked() {
+        Doctor doctor = createDoctor(uniqueName("Oncology"), "Monday,Wed,9am-5pm");
+
+        // The profile form sends the stored text back on every edit, including the values V5 left unlinked
+        Doctor update = new Doctor();
+        update.setPhone("0100");
+        update.setVisitingDays(doctor.getVisitingDays());
+        doctorService.updateDoctor(doctor.getId(), update);
+
+        assertThat(doctorService.getDoctorById(doctor.getId()).getVisitingDays()).isEqualTo("Monday,Wed,9am-5pm");
+        eventually(() -> assertThat(ids(doctorService.getDoctorsByVisitingDay("Monday"))).contains(doctor.getId()));
+        assertThat(ids(doctorService.getDoctorsByVisitingDay("Wednesday"))).doesNotContain(doctor.getId());
+    }
+
+    private Doctor createDoctor(String specializations, String visitingDays) {
+        long n = NAMES.incrementAndGet();
+        Doctor doctor = new Doctor(null, "Dr. Directory " + n, "directory" + n + "@test.com",
+                "directory" + n, "secret", specializations);
+        doctor.setVisitingDays(visitingDays);
+        return doctorService.createDoctor(doctor);
+    }
+
+    private static String uniqueName(String base) {
+        return base + " " + NAMES.incrementAndGet();
+    }
+
+    private static List<Long> ids(List<DoctorSummary> doctors) {
+        return doctors.stream().map(DoctorSummary::id).toList();
+    }
+
+    // Writes reach the directory on the task executor shortly after they commit
+    private static void eventually(Runnable assertion) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (true) {
+            try {
+                assertion.run();
+                return;
+            } catch (AssertionError e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.dto.QueueUpdate;
+import com.learn.mediconnect.entity.Appointment;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DoctorQueueServiceTest {
+
+    private static final AtomicLong NAMES = new AtomicLong();
+
+    @Autowired
+    private DoctorQueueService doctorQueueService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Doctor doctor;
+    private Patient patient;
+    private LocalDate visitingDate;
+
+    @BeforeEach
+    void setUp() {
+        long n = NAMES.incrementAndGet();
+        doctor = doctorRepository.save(new Doctor(null, "Dr. Queue " + n, "queue-doctor" + n + "@test.com",
+                "queue-doctor" + n, "secret", "Cardiology"));
+        patient = patientRepository.save(new Patient(null, "Queue Patient " + n, "queue-patient" + n + "@test.com",
+                "queue-patient" + n, "secret"));
+        visitingDate = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void followerReceivesOnlyChangedPositions() throws InterruptedException {
+        Appointment first = book();
+        Appointment second = book();
+        Appointment mine = book();
+
+        List<QueueUpdate> updates = new CopyOnWriteArrayList<>();
+        DoctorQueueService.Subscription subscription =
+                doctorQueueService.subscribe(doctor.getId(), visitingDate, mine.getId(), updates::add);
+        eventually(() -> assertThat(updates).singleElement().satisfies(update -> {
+            assertThat(update.currentSerial()).isEqualTo(1);
+            assertThat(update.waiting()).isEqualTo(3);
+            assertThat(update.serial()).isEqualTo(3);
+            assertThat(update.position()).isEqualTo(3);
+        }));
+
+        appointmentService.completeAppointment(first.getId());
+        appointmentService.cancelAppointment(second.getId());
+        eventually(() -> {
+            assertThat(updates).extracting(QueueUpdate::currentSerial).containsExactly(1, 2, 3);
+            assertThat(updates).extracting(QueueUpdate::position).containsExactly(3, 2, 1);
+        });
+
+        // Someone booking behind us changes the waiting count but not our place
+        book();
+        eventually(() -> assertThat(updates).last().satisfies(update -> {
+            assertThat(update.waiting()).isEqualTo(2);
+            assertThat(update.position()).isEqualTo(1);
+        }));
+
+        appointmentService.completeAppointment(mine.getId());
+        eventually(() -> assertThat(updates).last().satisfies(update -> {
+            assertThat(update.status()).isEqualTo("COMPLETED");
+            assertThat(update.position()).isNull();
+            assertThat(update.currentSerial()).isEqualTo(4);
+        }));
+
+        int received = updates.size();
+        subscription.cancel();
+        book();
+        Thread.sleep(200);
+        assertThat(updates).hasSize(received);
+    }
+
+    @Test
+    void movingAnAppointmentUpdatesBothDays() {
+        Appointment moving = book();
+        book();
+
+        List<QueueUpdate> today = new CopyOnWriteArrayList<>();
+        List<QueueUpdate> later = new CopyOnWriteArrayList<>();
+        doctorQueueService.subscribe(doctor.getId(), visitingDate, null, today::add);
+        doctorQueueService.subscribe(doctor.getId(), visitingDate.plusDays(1), null, later::add);
+
+        Appointment update = new Appointment();
+        update.setVisitingDate(visitingDate.plusDays(1));
+        update.setStatus(Appointment.AppointmentStatus.SCHEDULED);
+        appointmentService.updateAppointment(moving.getId(), update);
+
+        eventually(() -> {
+            assertThat(today).extracting(QueueUpdate::waiting).containsExactly(2, 1);
+            assertThat(today).extracting(QueueUpdate::currentSerial).containsExactly(1, 2);
+            assertThat(later).extracting(QueueUpdate::waiting).containsExactly(0, 1);
+        });
+    }
+
+    @Test
+    void stalledClientHoldsUpNeitherTheWriterNorOtherSubscribers() throws InterruptedException {
+        Appointment first = book();
+        book();
+
+        CountDownLatch release = new CountDownLatch(1);
+        List<QueueUpdate> stalled = new CopyOnWriteArrayList<>();
+        List<QueueUpdate> others = new CopyOnWriteArrayList<>();
+        // Blocks like SseEmitter.send to a client that stopped reading
+        doctorQueueService.subscribe(doctor.getId(), visitingDate, null, update -> {
+            stalled.add(update);
+            awaitQuietly(release);
+        });
+        doctorQueueService.subscribe(doctor.getId(), visitingDate, null, others::add);
+
+        long started = System.nanoTime();
+        appointmentService.completeAppointment(first.getId());
+        book();
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+        eventually(() -> assertThat(others).extracting(QueueUpdate::waiting).containsExactly(2, 1, 2));
+
+        release.countDown();
+        eventually(() -> assertThat(stalled).extracting(QueueUpdate::waiting).containsExactly(2, 1, 2));
+    }
+
+    @Test
+    void followingAnAppointmentFromAnotherQueueIsRejected() {
+        Appointment appointment = book();
+
+        assertThatThrownBy(() -> doctorQueueService.subscribe(doctor.getId(), visitingDate.plusDays(3), appointment.getId(), update -> {}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @WithMockUser(roles = "PATIENT")
+    void queueIsStreamedAsServerSentEvents() throws Exception {
+        Appointment appointment = book();
+
+        mockMvc.perform(get("/api/appointments/doctor/" + doctor.getId() + "/date/" + visitingDate + "/queue")
+                        .param("appointmentId", appointment.getId().toString()))
+                .andExpect(request().asyncStarted());
+    }
+
+    // Updates reach subscribers on the task executor shortly after the commit
+    private static void eventually(Runnable assertion) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (true) {
+            try {
+                assertion.run();
+                return;
+            } catch (AssertionError e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Appointment book() {
+        return appointmentService.createAppointment(new Appointment(doctor, patient, LocalDate.now(), visitingDate));
+    }
+}
@@ -0,0 +1,47 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.entity.OutboxEvent;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Outbox sink for tests: keeps every delivered event and can be told to fail the next deliveries.
+// Not a @Component, so only tests that @Import it get a relay that actually drains.
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final AtomicBoolean calledInTransaction = new AtomicBoolean();
+
+    @Override
+    public void publish(OutboxEvent event) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            calledInTransaction.set(true);
+        }
+        if (failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+            throw new IllegalStateException("Sink unavailable");
+        }
+        events.add(event);
+    }
+
+    public List<OutboxEvent> events() {
+        return List.copyOf(events);
+    }
+
+    public boolean calledInTransaction() {
+        return calledInTransaction.get();
+    }
+
+    public void failNext(int deliveries) {
+        failuresLeft.set(deliveries);
+    }
+
+    public void clear() {
+        events.clear();
+        failuresLeft.set(0);
+        calledInTransaction.set(false);
+    }
+}
@@ -0,0 +1,211 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.entity.Appointment;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.OutboxEvent;
+import com.learn.mediconnect.entity.OutboxEvent.AggregateType;
+import com.learn.mediconnect.entity.OutboxEvent.EventType;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.entity.Prescription;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.OutboxEventRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+// The scheduled poll is pushed out of the way; each test drives the relay by hand
+@SpringBootTest(properties = {"outbox.poll-interval=PT1H", "outbox.purge-interval=PT1H", "outbox.batch-size=3",
+        "outbox.max-attempts=2", "outbox.parked-retention=PT0S"})
+@ActiveProfiles("test")
+@Import(InMemoryOutboxSink.class)
+class OutboxRelayTest {
+
+    private static final AtomicLong NAMES = new AtomicLong();
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private List<OutboxSink> sinks;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        sink.clear();
+        long n = NAMES.incrementAndGet();
+        doctor = doctorRepository.save(new Doctor(null, "Dr. Outbox " + n, "outbox-doctor" + n + "@test.com",
+                "outbox-doctor" + n, "secret", "Cardiology"));
+        patient = patientRepository.save(new Patient(null, "Outbox Patient " + n, "outbox-patient" + n + "@test.com",
+                "outbox-patient" + n, "secret"));
+    }
+
+    @Test
+    void stateChangesAreRelayedInOrderAndRemoved() {
+        Appointment appointment = book();
+        appointmentService.cancelAppointment(appointment.getId());
+        Prescription prescription = prescriptionService.createPrescription(new Prescription(patient, doctor, "Cough"));
+        Prescription update = new Prescription();
+        update.setProblem("Dry cough");
+        update.setStatus(Prescription.PrescriptionStatus.COMPLETED);
+        prescriptionService.updatePrescription(prescription.getId(), update);
+        prescriptionService.deletePrescription(prescription.getId());
+
+        outboxRelay.poll();
+
+        assertThat(sink.events())
+                .extracting(OutboxEvent::getAggregateType, OutboxEvent::getAggregateId, OutboxEvent::getEventType)
+                .containsExactly(
+                        tuple(AggregateType.APPOINTMENT, appointment.getId(), EventType.CREATED),
+                        tuple(AggregateType.APPOINTMENT, appointment.getId(), EventType.CANCELED),
+                        tuple(AggregateType.PRESCRIPTION, prescription.getId(), EventType.CREATED),
+                        tuple(AggregateType.PRESCRIPTION, prescription.getId(), EventType.UPDATED),
+                        tuple(AggregateType.PRESCRIPTION, prescription.getId(), EventType.DELETED));
+        assertThat(sink.events().get(1).getPayload())
+                .containsEntry("doctorId", doctor.getId().intValue())
+                .containsEntry("status", "CANCELED");
+        assertThat(sink.events().get(3).getPayload()).containsEntry("status", "COMPLETED");
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(sink.calledInTransaction()).isFalse();
+    }
+
+    @Test
+    void claimedEventsAreLeftAloneUntilTheLeaseRunsOut() {
+        Appointment appointment = book();
+
+        // Another relay is still publishing it
+        jdbcTemplate.update("UPDATE outbox_events SET claimed_until = ?", Timestamp.from(Instant.now().plusSeconds(60)));
+        assertThat(outboxRelay.relayBatch()).isEqualTo(new OutboxRelay.BatchResult(0, 0));
+
+        // That relay died without deleting it
+        jdbcTemplate.update("UPDATE outbox_events SET claimed_until = ?", Timestamp.from(Instant.now().minusSeconds(1)));
+        assertThat(outboxRelay.relayBatch()).isEqualTo(new OutboxRelay.BatchResult(1, 0));
+        assertThat(sink.events()).extracting(OutboxEvent::getAggregateId).containsExactly(appointment.getId());
+    }
+
+    @Test
+    void rolledBackChangesLeaveNoEvent() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            book();
+            status.setRollbackOnly();
+        });
+
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThatThrownBy(() -> outboxService.appointmentChanged(new Appointment(), EventType.CREATED))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    @Test
+    void failedDeliveriesAreRetriedUntilTheAttemptLimit() {
+        Appointment appointment = book();
+
+        sink.failNext(1);
+        assertThat(outboxRelay.relayBatch()).isEqualTo(new OutboxRelay.BatchResult(0, 1));
+        assertThat(outboxEventRepository.findAll()).singleElement().satisfies(event -> {
+            assertThat(event.getAttempts()).isEqualTo(1);
+            assertThat(event.getLastError()).contains("Sink unavailable");
+            assertThat(event.getClaimedUntil()).isNull();
+        });
+
+        assertThat(outboxRelay.relayBatch()).isEqualTo(new OutboxRelay.BatchResult(1, 0));
+        assertThat(sink.events()).extracting(OutboxEvent::getAggregateId).containsExactly(appointment.getId());
+
+        // An event that keeps failing is parked once it reaches outbox.max-attempts
+        book();
+        sink.failNext(2);
+        outboxRelay.relayBatch();
+        outboxRelay.relayBatch();
+        assertThat(outboxRelay.relayBatch()).isEqualTo(new OutboxRelay.BatchResult(0, 0));
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void parkedEventsAreDeletedAfterTheRetention() {
+        book();
+        sink.failNext(2);
+        outboxRelay.relayBatch();
+        outboxRelay.relayBatch();
+        // Failed once, still being retried
+        book();
+        sink.failNext(1);
+        outboxRelay.relayBatch();
+
+        assertThat(outboxRelay.purgeParked()).isEqualTo(1);
+        assertThat(outboxEventRepository.findAll()).singleElement()
+                .extracting(OutboxEvent::getAttempts).isEqualTo(1);
+    }
+
+    @Test
+    void eventsGoToTheLogUnlessAnotherSinkTakesOver() {
+        assertThat(sinks).hasAtLeastOneElementOfType(LoggingOutboxSink.class);
+
+        // With no sink at all nothing is written, since nothing would drain it
+        Appointment appointment = book();
+        long before = outboxEventRepository.count();
+        new OutboxService(outboxEventRepository, List.of()).appointmentChanged(appointment, EventType.UPDATED);
+        assertThat(outboxEventRepository.count()).isEqualTo(before);
+    }
+
+    @Test
+    void pollDrainsFullBatchesUntilEmpty() {
+        for (int i = 0; i < 7; i++) {
+            book();
+        }
+
+        outboxRelay.poll();
+
+        assertThat(sink.events()).hasSize(7);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    private Appointment book() {
+        return appointmentService.createAppointment(new Appointment(doctor, patient, LocalDate.now(), LocalDate.now().plusDays(1)));
+    }
+}
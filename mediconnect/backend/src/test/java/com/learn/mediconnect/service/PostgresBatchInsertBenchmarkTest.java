@@ -0,0 +1,26 @@
+package com.learn.mediconnect.service;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// BatchInsertBenchmarkTest against PostgreSQL, where a round trip per INSERT costs what it does in production.
+// The schema comes from the Flyway migrations; the inserted prescriptions are kept, so point it at a scratch
+// database. Run with:
+//   mvn test -Dgroups=benchmark -Dsurefire.excludedGroups= -Dtest=PostgresBatchInsertBenchmarkTest \
+//       -Dbenchmark.db.url=jdbc:postgresql://localhost:5432/mediconnect_bench -Dbenchmark.db.username=... -Dbenchmark.db.password=...
+@EnabledIfSystemProperty(named = "benchmark.db.url", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${benchmark.db.url}",
+        "spring.datasource.username=${benchmark.db.username:postgres}",
+        "spring.datasource.password=${benchmark.db.password:}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@ActiveProfiles("test")
+class PostgresBatchInsertBenchmarkTest extends BatchInsertBenchmarkTest {
+}
@@ -0,0 +1,147 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.entity.Appointment;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.entity.Specialization;
+import com.learn.mediconnect.repository.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    private static final AtomicLong NAMES = new AtomicLong();
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private SpecializationService specializationService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void doctorReadsAreServedFromCacheAndFollowWrites() {
+        Doctor doctor = createDoctor();
+        doctorService.getDoctorById(doctor.getId());
+
+        statistics.clear();
+        assertThat(doctorService.getDoctorById(doctor.getId()).getName()).isEqualTo(doctor.getName());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        Doctor update = new Doctor();
+        update.setName("Renamed " + doctor.getName());
+        doctorService.updateDoctor(doctor.getId(), update);
+        assertThat(doctorService.getDoctorById(doctor.getId()).getName()).isEqualTo("Renamed " + doctor.getName());
+
+        doctorService.deleteDoctor(doctor.getId());
+        assertThatThrownBy(() -> doctorService.getDoctorById(doctor.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bookingKeepsDoctorsCached() {
+        Doctor doctor = createDoctor();
+        long n = NAMES.incrementAndGet();
+        Patient patient = patientRepository.save(new Patient(null, "Cache Patient " + n, "cache-patient" + n + "@test.com",
+                "cache-patient" + n, "secret"));
+        doctorService.getDoctorById(doctor.getId());
+
+        // The serial counter is advanced with native SQL, which must not flush the whole second-level cache
+        appointmentService.createAppointment(new Appointment(doctor, patient, LocalDate.now(), LocalDate.now().plusDays(2)));
+
+        statistics.clear();
+        doctorService.getDoctorById(doctor.getId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void specializationListIsCachedUntilTheTableChanges() {
+        specializationService.getAllSpecializations();
+
+        statistics.clear();
+        specializationService.getAllSpecializations();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        String name = "Cached Specialty " + NAMES.incrementAndGet();
+        Specialization created = specializationService.createSpecialization(new Specialization(name));
+        assertThat(specializationService.getAllSpecializations()).extracting(Specialization::getName).contains(name);
+
+        specializationService.updateSpecialization(created.getId(), new Specialization(name + " (renamed)"));
+        assertThat(specializationService.getSpecializationById(created.getId()).getName()).isEqualTo(name + " (renamed)");
+        assertThat(specializationService.getAllSpecializations()).extracting(Specialization::getName)
+                .contains(name + " (renamed)").doesNotContain(name);
+
+        specializationService.deleteSpecialization(created.getId());
+        assertThat(specializationService.getAllSpecializations()).extracting(Specialization::getId)
+                .doesNotContain(created.getId());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void cacheStatisticsAreExposedThroughActuator() throws Exception {
+        doctorService.getDoctorById(createDoctor().getId());
+
+        mockMvc.perform(get("/actuator/hibernatecache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statisticsEnabled").value(true))
+                .andExpect(jsonPath("$.regions.doctors.maximumSize").value(10000))
+                .andExpect(jsonPath("$.regions.doctors.expireAfterWrite").value("PT10M"))
+                .andExpect(jsonPath("$.regions.specializations.hits").isNumber());
+    }
+
+    // Waits for DoctorDirectory to pick the new doctor up, so its read on the task executor cannot land
+    // between a statistics.clear() and the statement count asserted after it
+    private Doctor createDoctor() {
+        long n = NAMES.incrementAndGet();
+        Doctor doctor = doctorService.createDoctor(new Doctor(null, "Dr. Cache " + n, "cache-doctor" + n + "@test.com",
+                "cache-doctor" + n, "secret", "Cardiology"));
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (doctorService.getDoctorsBySpecialization("Cardiology").stream()
+                .noneMatch(summary -> summary.id().equals(doctor.getId()))) {
+            assertThat(System.nanoTime()).as("doctor directory update").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+        return doctor;
+    }
+}
@@ -0,0 +1,53 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.service.SessionTokenService.Session;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionTokenServiceTest {
+
+    private static final String OLD_SECRET = "oldSecretKeyForMediConnectTestsThatIsAtLeast256BitsLong";
+    private static final String NEW_SECRET = "newSecretKeyForMediConnectTestsThatIsAtLeast256BitsLong";
+
+    @Test
+    void issuedTokenCarriesIdentity() {
+        SessionTokenService tokens = new SessionTokenService(NEW_SECRET, 60_000, List.of());
+
+        Optional<Session> session = tokens.parseToken(tokens.issueToken("PATIENT", "alice", 42L, 3));
+
+        assertThat(session).contains(new Session("patient", "alice", 42L, 3));
+        assertThat(session.get().getRole()).isEqualTo("ROLE_PATIENT");
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        SessionTokenService tokens = new SessionTokenService(NEW_SECRET, 60_000, List.of());
+        String token = tokens.issueToken("doctor", "bob", 7L, 0);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(tokens.parseToken(tampered)).isEmpty();
+        assertThat(tokens.parseToken("doctor_bob")).isEmpty();
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        SessionTokenService tokens = new SessionTokenService(NEW_SECRET, -1_000, List.of());
+
+        assertThat(tokens.parseToken(tokens.issueToken("admin", "admin", null, 0))).isEmpty();
+    }
+
+    @Test
+    void previousSecretsStayValidDuringRotation() {
+        String oldToken = new SessionTokenService(OLD_SECRET, 60_000, List.of()).issueToken("doctor", "bob", 7L, 0);
+
+        SessionTokenService rotated = new SessionTokenService(NEW_SECRET, 60_000, List.of(OLD_SECRET));
+        SessionTokenService retired = new SessionTokenService(NEW_SECRET, 60_000, List.of());
+
+        assertThat(rotated.parseToken(oldToken)).contains(new Session("doctor", "bob", 7L, 0));
+        assertThat(retired.parseToken(oldToken)).isEmpty();
+    }
+}
@@ -0,0 +1,103 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionVersionCacheTest {
+
+    private static final AtomicLong NAMES = new AtomicLong();
+
+    @Autowired
+    private SessionVersionCache sessionVersionCache;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        long n = NAMES.incrementAndGet();
+        patient = patientRepository.save(new Patient(null, "Version Patient " + n, "version-patient" + n + "@test.com",
+                "version-patient" + n, "secret"));
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromTheCache() {
+        double hits = gets("hit");
+        double misses = gets("miss");
+
+        assertThat(sessionVersionCache.currentVersion("patient", patient.getId())).contains(0);
+        assertThat(sessionVersionCache.currentVersion("patient", patient.getId())).contains(0);
+
+        assertThat(gets("miss") - misses).isEqualTo(1);
+        assertThat(gets("hit") - hits).isEqualTo(1);
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        double misses = gets("miss");
+
+        assertThat(sessionVersionCache.currentVersion("patient", -1L)).isEmpty();
+        assertThat(sessionVersionCache.currentVersion("patient", -1L)).isEmpty();
+
+        assertThat(gets("miss") - misses).isEqualTo(2);
+    }
+
+    @Test
+    void passwordChangeIsSeenOnTheNextLookup() {
+        assertThat(sessionVersionCache.currentVersion("patient", patient.getId())).contains(0);
+
+        Patient update = new Patient();
+        update.setPassword("changed-secret");
+        patientService.updatePatient(patient.getId(), update);
+
+        assertThat(sessionVersionCache.currentVersion("patient", patient.getId())).contains(1);
+    }
+
+    @Test
+    void deletedUsersHaveNoVersion() {
+        long n = NAMES.incrementAndGet();
+        Doctor doctor = doctorRepository.save(new Doctor(null, "Dr. Version " + n, "version-doctor" + n + "@test.com",
+                "version-doctor" + n, "secret", "ENT"));
+        assertThat(sessionVersionCache.currentVersion("doctor", doctor.getId())).contains(0);
+        assertThat(sessionVersionCache.currentVersion("patient", patient.getId())).contains(0);
+
+        doctorService.deleteDoctor(doctor.getId());
+        patientService.deletePatient(patient.getId());
+
+        assertThat(sessionVersionCache.currentVersion("doctor", doctor.getId())).isEmpty();
+        assertThat(sessionVersionCache.currentVersion("patient", patient.getId())).isEmpty();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "sessionVersions").tag("result", result)
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,138 @@
+package com.learn.mediconnect.service;
+
+import com.learn.mediconnect.dto.PrescriptionSummary;
+import com.learn.mediconnect.entity.Doctor;
+import com.learn.mediconnect.entity.Patient;
+import com.learn.mediconnect.repository.DoctorRepository;
+import com.learn.mediconnect.repository.PatientRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Ranked tsvector search (GIN index on prescriptions.search_vector) versus the naive ILIKE scan over
+// problem/advice/other, on a synthetic 1M-row prescriptions table. Needs PostgreSQL; the schema comes from
+// the Flyway migrations and the synthetic rows are kept between runs. Run with:
+//   mvn test -Dgroups=benchmark -Dsurefire.excludedGroups= -Dtest=TextSearchBenchmarkTest \
+//       -Dbenchmark.db.url=jdbc:postgresql://localhost:5432/mediconnect_bench -Dbenchmark.db.username=... -Dbenchmark.db.password=...
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark.db.url", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${benchmark.db.url}",
+        "spring.datasource.username=${benchmark.db.username:postgres}",
+        "spring.datasource.password=${benchmark.db.password:}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@ActiveProfiles("test")
+class TextSearchBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TextSearchBenchmarkTest.class);
+    private static final int ROWS = 1_000_000;
+    private static final int DOCTORS = 10;
+    private static final int PATIENTS = 1000;
+    private static final int RESULTS = 50;
+    private static final int ROUNDS = 20;
+
+    // Appears in roughly 1 of every 200 rows; everything else is drawn from common vocabulary
+    private static final String RARE_TERM = "photophobia";
+
+    private static final String LIKE_QUERY = "SELECT id FROM prescriptions WHERE doctor_id = ? " +
+            "AND (problem ILIKE ? OR advice ILIKE ? OR other ILIKE ?) ORDER BY id DESC LIMIT " + RESULTS;
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareFullTextAndLikeSearch() {
+        Long doctorId = seed();
+        String pattern = "%" + RARE_TERM + "%";
+
+        // Warm up both paths (plan cache, buffer cache) before measuring
+        Supplier<List<PrescriptionSummary>> fullText =
+                () -> prescriptionService.searchByText(RARE_TERM, doctorId, null, RESULTS);
+        Supplier<List<Long>> like =
+                () -> jdbcTemplate.queryForList(LIKE_QUERY, Long.class, doctorId, pattern, pattern, pattern);
+        fullText.get();
+        like.get();
+
+        double fullTextMillis = averageMillis(fullText);
+        double likeMillis = averageMillis(like);
+        log.info("Text search over {} prescriptions (doctor scope ~{} rows): tsvector {} ms, ILIKE {} ms",
+                ROWS, ROWS / DOCTORS, Math.round(fullTextMillis * 10) / 10.0, Math.round(likeMillis * 10) / 10.0);
+        assertThat(fullText.get()).isNotEmpty();
+    }
+
+    // Inserts the synthetic dataset once; later runs reuse it
+    private Long seed() {
+        Long existing = jdbcTemplate.queryForObject("SELECT min(id) FROM doctors WHERE username LIKE 'fts-bench-%'", Long.class);
+        if (existing != null) {
+            return existing;
+        }
+
+        List<Long> doctorIds = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            doctorIds.add(doctorRepository.save(new Doctor(null, "Dr. Bench " + i, "fts-bench-" + i + "@test.com",
+                    "fts-bench-" + i, "secret", "General Medicine")).getId());
+        }
+        List<Long> patientIds = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            patientIds.add(patientRepository.save(new Patient(null, "Bench Patient " + i, "fts-bench-patient-" + i + "@test.com",
+                    "fts-bench-patient-" + i, "secret")).getId());
+        }
+
+        jdbcTemplate.update("""
+                WITH words AS (
+                    SELECT ARRAY['fever', 'cough', 'headache', 'nausea', 'fatigue', 'rash', 'dizziness', 'back pain',
+                                 'sore throat', 'chest pain', 'insomnia', 'anxiety', 'joint pain', 'vomiting',
+                                 'shortness of breath', 'abdominal pain', 'blurred vision', 'palpitations'] AS w
+                )
+                INSERT INTO prescriptions (id, prescription_date, patient_id, doctor_id, problem, advice, other, status)
+                SELECT nextval('prescriptions_id_seq'),
+                       DATE '2020-01-01' + (g % 1500),
+                       (?::bigint[])[1 + g % ?],
+                       (?::bigint[])[1 + g % ?],
+                       w[1 + (random() * 17)::int] || ' and ' || w[1 + (random() * 17)::int]
+                           || CASE WHEN g % 200 = 0 THEN ' with ' || ? ELSE '' END,
+                       'Drink fluids, rest and return if the ' || w[1 + (random() * 17)::int] || ' persists',
+                       CASE WHEN g % 3 = 0 THEN 'Follow-up in ' || (1 + g % 4) || ' weeks' END,
+                       'ACTIVE'
+                FROM generate_series(1, ?) AS g, words
+                """,
+                patientIds.toArray(Long[]::new), PATIENTS, doctorIds.toArray(Long[]::new), DOCTORS, RARE_TERM, ROWS);
+        jdbcTemplate.execute("ANALYZE prescriptions");
+        return doctorIds.get(0);
+    }
+
+    private static double averageMillis(Supplier<?> query) {
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            query.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+    }
+}
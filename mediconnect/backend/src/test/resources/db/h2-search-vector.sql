@@ -0,0 +1,3 @@
+-- H2 has no tsvector; keep a lower-cased copy of the searchable text so the prescription_text_matches fallback has
+-- something to match (the column is not mapped, so Hibernate does not create it)
+ALTER TABLE prescriptions ADD COLUMN search_vector VARCHAR GENERATED ALWAYS AS (LOWER(CONCAT_WS(' ', problem, advice, other)));
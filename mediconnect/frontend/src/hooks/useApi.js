@@ -43,6 +43,16 @@ export const useAppointments = () => {
     return useApiData(appointmentService.getAllAppointments);
 };
 
+// Hook for one doctor's appointments; waits for the id (e.g. while the session is still loading)
+export const useAppointmentsByDoctor = (doctorId) => {
+    return useApiData(() => doctorId ? appointmentService.getAppointmentsByDoctorId(doctorId) : Promise.resolve([]), [doctorId]);
+};
+
+// Hook for one patient's appointments; waits for the id
+export const useAppointmentsByPatient = (patientId) => {
+    return useApiData(() => patientId ? appointmentService.getAppointmentsByPatientId(patientId) : Promise.resolve([]), [patientId]);
+};
+
 // Hook for specializations data
 export const useSpecializations = () => {
     return useApiData(specializationService.getAllSpecializations);
@@ -73,14 +83,14 @@ export const usePrescriptions = () => {
     return useApiData(prescriptionService.getAllPrescriptions);
 };
 
-// Hook for prescriptions by patient ID
+// Hook for prescriptions by patient ID; waits for the id
 export const usePrescriptionsByPatient = (patientId) => {
-    return useApiData(() => prescriptionService.getPrescriptionsByPatientId(patientId), [patientId]);
+    return useApiData(() => patientId ? prescriptionService.getPrescriptionsByPatientId(patientId) : Promise.resolve([]), [patientId]);
 };
 
-// Hook for prescriptions by doctor ID
+// Hook for prescriptions by doctor ID; waits for the id
 export const usePrescriptionsByDoctor = (doctorId) => {
-    return useApiData(() => prescriptionService.getPrescriptionsByDoctorId(doctorId), [doctorId]);
+    return useApiData(() => doctorId ? prescriptionService.getPrescriptionsByDoctorId(doctorId) : Promise.resolve([]), [doctorId]);
 };
 
 // Hook for single prescription
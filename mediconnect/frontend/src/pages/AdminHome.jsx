@@ -19,21 +19,22 @@ const AdminHome = () => {
         try {
             setIsLoading(true);
             // Fetch statistics from various endpoints
-            const [patientsRes, doctorsRes, appointmentsRes] = await Promise.all([
+            // (/api/appointments is paged, so appointment totals come from the counts endpoint)
+            const [patientsRes, doctorsRes, appointmentCountsRes] = await Promise.all([
                 fetch('http://localhost:8080/api/patients', { credentials: 'include' }),
                 fetch('http://localhost:8080/api/doctors', { credentials: 'include' }),
-                fetch('http://localhost:8080/api/appointments', { credentials: 'include' })
+                fetch('http://localhost:8080/api/appointments/counts', { credentials: 'include' })
             ]);
 
             const patients = await patientsRes.json();
             const doctors = await doctorsRes.json();
-            const appointments = await appointmentsRes.json();
+            const appointmentCounts = await appointmentCountsRes.json();
 
             setStats({
                 totalPatients: patients.length || 0,
                 totalDoctors: doctors.length || 0,
-                totalAppointments: appointments.length || 0,
-                pendingAppointments: appointments.filter(apt => apt.status === 'SCHEDULED').length || 0
+                totalAppointments: Object.values(appointmentCounts).reduce((sum, count) => sum + count, 0),
+                pendingAppointments: appointmentCounts.SCHEDULED || 0
             });
         } catch (error) {
             console.error('Error fetching dashboard stats:', error);
@@ -1,21 +1,16 @@
 import React, { useState } from 'react';
 import { useAuth } from '../../contexts/AuthContext';
-import { useAppointments } from '../../hooks/useApi';
+import { useAppointmentsByDoctor } from '../../hooks/useApi';
 import Header from '../../components/common/Header';
 import Footer from '../../components/common/Footer';
 import { LoadingSpinner, ErrorMessage } from '../../components/common';
 
 const DoctorAppointmentsPage = () => {
     const { user } = useAuth();
-    const { data: appointments = [], loading, error } = useAppointments();
+    // Only this doctor's appointments, all of them (the full list is paged)
+    const { data: doctorAppointments = [], loading, error } = useAppointmentsByDoctor(user?.id);
     const [selectedStatus, setSelectedStatus] = useState('all');
 
-    // Filter appointments for this doctor
-    const doctorAppointments = appointments.filter(appointment =>
-        appointment.doctorId === user?.id ||
-        appointment.doctor?.id === user?.id
-    );
-
     // Filter by status
     const filteredAppointments = selectedStatus === 'all'
         ? doctorAppointments
@@ -1,6 +1,6 @@
 import React from 'react';
 import { useAuth } from '../../contexts/AuthContext';
-import { useAppointments, usePrescriptions } from '../../hooks/useApi';
+import { useAppointmentsByDoctor, usePrescriptionsByDoctor } from '../../hooks/useApi';
 import Header from '../../components/common/Header';
 import Footer from '../../components/common/Footer';
 import { LoadingSpinner, ErrorMessage } from '../../components/common';
@@ -10,28 +10,17 @@ const DoctorDashboard = () => {
 
     // Get appointments for this doctor
     const {
-        data: appointments = [],
+        data: doctorAppointments = [],
         loading: appointmentsLoading,
         error: appointmentsError
-    } = useAppointments();
+    } = useAppointmentsByDoctor(user?.id);
 
     // Get prescriptions created by this doctor
     const {
-        data: prescriptions = [],
+        data: doctorPrescriptions = [],
         loading: prescriptionsLoading,
         error: prescriptionsError
-    } = usePrescriptions();
-
-    // Filter appointments and prescriptions for current doctor
-    const doctorAppointments = appointments.filter(appointment =>
-        appointment.doctorId === user?.id ||
-        appointment.doctor?.id === user?.id
-    );
-
-    const doctorPrescriptions = prescriptions.filter(prescription =>
-        prescription.doctorId === user?.id ||
-        prescription.doctor?.id === user?.id
-    );
+    } = usePrescriptionsByDoctor(user?.id);
 
     // Recent appointments (last 5)
     const recentAppointments = doctorAppointments
@@ -1,6 +1,6 @@
 import React, { useState } from 'react';
 import { useAuth } from '../../contexts/AuthContext';
-import { usePatients, useAppointments } from '../../hooks/useApi';
+import { usePatients, useAppointmentsByDoctor } from '../../hooks/useApi';
 import Header from '../../components/common/Header';
 import Footer from '../../components/common/Footer';
 import { LoadingSpinner, ErrorMessage } from '../../components/common';
@@ -8,15 +8,10 @@ import { LoadingSpinner, ErrorMessage } from '../../components/common';
 const DoctorPatientsPage = () => {
     const { user } = useAuth();
     const { data: patients = [], loading: patientsLoading, error: patientsError } = usePatients();
-    const { data: appointments = [], loading: appointmentsLoading, error: appointmentsError } = useAppointments();
+    // Appointments for this doctor, to find their patients
+    const { data: doctorAppointments = [], loading: appointmentsLoading, error: appointmentsError } = useAppointmentsByDoctor(user?.id);
     const [searchTerm, setSearchTerm] = useState('');
 
-    // Get appointments for this doctor to find their patients
-    const doctorAppointments = appointments.filter(appointment =>
-        appointment.doctorId === user?.id ||
-        appointment.doctor?.id === user?.id
-    );
-
     // Get unique patient IDs from doctor's appointments
     const doctorPatientIds = [...new Set(doctorAppointments.map(apt =>
         apt.patientId || apt.patient?.id
@@ -1,21 +1,16 @@
 import React, { useState } from 'react';
 import { useAuth } from '../../contexts/AuthContext';
-import { usePrescriptions } from '../../hooks/useApi';
+import { usePrescriptionsByDoctor } from '../../hooks/useApi';
 import Header from '../../components/common/Header';
 import Footer from '../../components/common/Footer';
 import { LoadingSpinner, ErrorMessage } from '../../components/common';
 
 const DoctorPrescriptionsPage = () => {
     const { user } = useAuth();
-    const { data: prescriptions = [], loading, error } = usePrescriptions();
+    // Only this doctor's prescriptions, all of them (the full list is paged)
+    const { data: doctorPrescriptions = [], loading, error } = usePrescriptionsByDoctor(user?.id);
     const [searchTerm, setSearchTerm] = useState('');
 
-    // Filter prescriptions for this doctor
-    const doctorPrescriptions = prescriptions.filter(prescription =>
-        prescription.doctorId === user?.id ||
-        prescription.doctor?.id === user?.id
-    );
-
     // Filter prescriptions based on search term
     const filteredPrescriptions = doctorPrescriptions.filter(prescription =>
         prescription.patient?.name?.toLowerCase().includes(searchTerm.toLowerCase()) ||
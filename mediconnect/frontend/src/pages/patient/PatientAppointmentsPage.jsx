@@ -1,5 +1,5 @@
 import React, { useState } from 'react';
-import { useAppointments } from '../../hooks/useApi';
+import { useAppointmentsByPatient } from '../../hooks/useApi';
 import { useAuth } from '../../contexts/AuthContext';
 import Header from '../../components/common/Header';
 import Footer from '../../components/common/Footer';
@@ -7,15 +7,11 @@ import { LoadingSpinner, ErrorMessage } from '../../components/common';
 
 const PatientAppointmentsPage = () => {
     const { user } = useAuth();
-    const { data: appointments, loading, error, refetch } = useAppointments();
+    // Only the current patient's appointments
+    const { data: patientAppointments, loading, error, refetch } = useAppointmentsByPatient(user?.id);
     const [searchTerm, setSearchTerm] = useState('');
     const [statusFilter, setStatusFilter] = useState('');
 
-    // Filter appointments for current patient
-    const patientAppointments = appointments.filter(appointment =>
-        appointment.patientId === user?.id || appointment.patient?.id === user?.id
-    );
-
     // Further filter based on search term and status
     const filteredAppointments = patientAppointments.filter(appointment => {
         const matchesSearch = appointment.doctorName?.toLowerCase().includes(searchTerm.toLowerCase()) ||
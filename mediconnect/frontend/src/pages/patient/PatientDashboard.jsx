@@ -1,6 +1,6 @@
 import React from 'react';
 import { useAuth } from '../../contexts/AuthContext';
-import { useAppointments, useDoctors, usePrescriptions, usePrescriptionsByPatient } from '../../hooks/useApi';
+import { useAppointmentsByPatient, useDoctors, usePrescriptionsByPatient } from '../../hooks/useApi';
 import Header from '../../components/common/Header';
 import Footer from '../../components/common/Footer';
 import { LoadingSpinner, ErrorMessage } from '../../components/common';
@@ -11,10 +11,10 @@ const PatientDashboard = () => {
 
     // Get data using our existing hooks
     const {
-        data: appointments = [],
+        data: patientAppointments = [],
         loading: appointmentsLoading,
         error: appointmentsError
-    } = useAppointments();
+    } = useAppointmentsByPatient(user?.id);
 
     const {
         data: doctors = [],
@@ -23,26 +23,10 @@ const PatientDashboard = () => {
     } = useDoctors();
 
     const {
-        data: prescriptions = [],
+        data: patientPrescriptions = [],
         loading: prescriptionsLoading,
         error: prescriptionsError
-    } = usePrescriptions();
-
-    console.log("Here is console log for appointments, doctors, prescriptions:", appointments, doctors, prescriptions);
-    console.log("Current user:", user);
-
-    // Filter data for current patient
-    const patientAppointments = appointments.filter(appointment =>
-        appointment.patientId === user?.id
-    );
-
-    const patientPrescriptions = prescriptions.filter(prescription =>
-        prescription.patientId === user?.id
-    );
-
-
-    console.log("AFter filter Here is console log for appointments, doctors, prescriptions:", appointments, doctors, prescriptions);
-    console.log("Current user:", user);
+    } = usePrescriptionsByPatient(user?.id);
 
 
     // Calculate stats
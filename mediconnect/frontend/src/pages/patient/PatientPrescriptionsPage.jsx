@@ -1,5 +1,5 @@
 import React, { useState } from 'react';
-import { usePrescriptions } from '../../hooks/useApi';
+import { usePrescriptionsByPatient } from '../../hooks/useApi';
 import { useAuth } from '../../contexts/AuthContext';
 import Header from '../../components/common/Header';
 import Footer from '../../components/common/Footer';
@@ -7,14 +7,10 @@ import { LoadingSpinner, ErrorMessage } from '../../components/common';
 
 const PatientPrescriptionsPage = () => {
     const { user } = useAuth();
-    const { data: prescriptions, loading, error, refetch } = usePrescriptions();
+    // Only the current patient's prescriptions
+    const { data: patientPrescriptions, loading, error, refetch } = usePrescriptionsByPatient(user?.id);
     const [searchTerm, setSearchTerm] = useState('');
 
-    // Filter prescriptions for current patient
-    const patientPrescriptions = prescriptions.filter(prescription =>
-        prescription.patientId === user?.id || prescription.patient?.id === user?.id
-    );
-
     // Further filter based on search term
     const filteredPrescriptions = patientPrescriptions.filter(prescription =>
         prescription.medication?.toLowerCase().includes(searchTerm.toLowerCase()) ||
@@ -27,6 +27,36 @@ const apiRequest = async (endpoint, options = {}) => {
     }
 };
 
+// Keyset-paged list endpoints return one page per request and the cursor for the next one in the
+// X-Next-Cursor header; follow it until the last page so callers get every row, not just the first page
+const apiRequestAllPages = async (endpoint) => {
+    const rows = [];
+    let cursor = null;
+    do {
+        const separator = endpoint.includes('?') ? '&' : '?';
+        const url = cursor
+            ? `${API_BASE_URL}${endpoint}${separator}cursor=${encodeURIComponent(cursor)}`
+            : `${API_BASE_URL}${endpoint}`;
+        try {
+            const response = await fetch(url, {
+                credentials: 'include', // Include cookies for authentication
+                headers: { 'Content-Type': 'application/json' },
+            });
+
+            if (!response.ok) {
+                throw new Error(`HTTP error! status: ${response.status}`);
+            }
+
+            rows.push(...(await response.json()));
+            cursor = response.headers.get('X-Next-Cursor');
+        } catch (error) {
+            console.error('API request failed:', error);
+            throw error;
+        }
+    } while (cursor);
+    return rows;
+};
+
 // Doctor API functions
 export const doctorService = {
     // Get all doctors
@@ -55,8 +85,8 @@ export const doctorService = {
 
 // Patient API functions
 export const patientService = {
-    // Get all patients
-    getAllPatients: () => apiRequest('/patients'),
+    // Get all patients (every page)
+    getAllPatients: () => apiRequestAllPages('/patients'),
 
     // Get patient by ID
     getPatientById: (id) => apiRequest(`/patients/${id}`),
@@ -81,12 +111,18 @@ export const patientService = {
 
 // Appointment API functions
 export const appointmentService = {
-    // Get all appointments
-    getAllAppointments: () => apiRequest('/appointments'),
+    // Get all appointments (every page)
+    getAllAppointments: () => apiRequestAllPages('/appointments'),
 
     // Get appointment by ID
     getAppointmentById: (id) => apiRequest(`/appointments/${id}`),
 
+    // Get appointments by doctor ID
+    getAppointmentsByDoctorId: (doctorId) => apiRequest(`/appointments/doctor/${doctorId}`),
+
+    // Get appointments by patient ID
+    getAppointmentsByPatientId: (patientId) => apiRequest(`/appointments/patient/${patientId}`),
+
     // Create new appointment
     createAppointment: (appointment) => apiRequest('/appointments', {
         method: 'POST',
@@ -133,8 +169,8 @@ export const specializationService = {
 
 // Prescription API functions
 export const prescriptionService = {
-    // Get all prescriptions
-    getAllPrescriptions: () => apiRequest('/prescriptions'),
+    // Get all prescriptions (every page)
+    getAllPrescriptions: () => apiRequestAllPages('/prescriptions'),
 
     // Get prescription by ID
     getPrescriptionById: (id) => apiRequest(`/prescriptions/${id}`),